@@ -80,7 +80,7 @@ public class GradesStatistics {
 		double median;
 		int size = array.length;
 		if (size % 2 == 1) {
-			median = array[size / 2 + 1];
+			median = array[size / 2];
 		} else {
 			median = (double) (array[size / 2 - 1] + array[size / 2]) / 2;
 		}
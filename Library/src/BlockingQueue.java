@@ -0,0 +1,20 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Queue that can wait: for space when enqueueing into a full queue and for
+ * an element when dequeueing from an empty one. Waiting threads first spin for
+ * a short while and then park until they are signalled. null is the "no
+ * element" answer of deQueue and poll, so it cannot be queued.
+ */
+interface BlockingQueue<E> extends Queue<E> {
+
+	public void put(E item) throws InterruptedException;
+
+	public E take() throws InterruptedException;
+
+	/** @return false if no space became available before the timeout */
+	public boolean offer(E item, long timeout, TimeUnit unit) throws InterruptedException;
+
+	/** @return null if no element became available before the timeout */
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException;
+}
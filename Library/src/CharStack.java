@@ -0,0 +1,56 @@
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Stack of primitive chars, see IntStack.
+ */
+public class CharStack {
+
+	private char[] data;
+	private int elementCount;
+
+	public CharStack(int capacity) {
+		data = new char[Math.max(capacity, 1)];
+		elementCount = 0;
+	}
+
+	public CharStack() {
+		this(10);
+	}
+
+	public char push(char item) {
+		if (elementCount == data.length)
+			grow();
+		data[elementCount++] = item;
+		return item;
+	}
+
+	public char peek() {
+		if (isEmpty())
+			throw new EmptyStackException();
+		return data[elementCount - 1];
+	}
+
+	public char pop() {
+		char item = peek();
+		elementCount--;
+		return item;
+	}
+
+	public boolean isEmpty() {
+		return elementCount == 0;
+	}
+
+	public int size() {
+		return elementCount;
+	}
+
+	public void clear() {
+		elementCount = 0;
+	}
+
+	// Double the capacity so that n pushes cost O(n) overall
+	private void grow() {
+		data = Arrays.copyOf(data, data.length << 1);
+	}
+}
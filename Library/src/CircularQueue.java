@@ -1,39 +1,139 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class CircularQueue<E> implements Queue<E> {
+public class CircularQueue<E> implements BlockingQueue<E> {
+
+	// Number of non-blocking retries before a waiting thread parks. Spinning
+	// only pays off when the other side can run at the same time.
+	static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
 
 	private Object[] data;
-	private int front;
-	private int tail;
+	private int front; // index of the first element
+	private int elementCount;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
 
 	public CircularQueue(int capacity) {
 		data = new Object[capacity];
-		front = tail = 0;
+		front = elementCount = 0;
 	}
 
 	@Override
 	public E enQueue(E item) {
-		if (size() != data.length)
-			data[++tail % data.length] = item;
-		else
-			return null;
-		return item;
+		if (item == null)
+			throw new NullPointerException();
+		lock.lock();
+		try {
+			if (elementCount == data.length)
+				return null;
+			insert(item);
+			return item;
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public E peek() {
-		if (isEmpty())
-			return null;
-		int index = front + 1;
-		return (E) data[index % data.length];
+		lock.lock();
+		try {
+			if (elementCount == 0)
+				return null;
+			return (E) data[front];
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public E deQueue() {
-		E obj = peek();
-		if (obj != null)
-			front++;
-		return obj;
+		lock.lock();
+		try {
+			if (elementCount == 0)
+				return null;
+			return extract();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void put(E item) throws InterruptedException {
+		if (item == null)
+			throw new NullPointerException();
+		for (int i = 0; i < SPINS; i++)
+			if (enQueue(item) != null)
+				return;
+		lock.lockInterruptibly();
+		try {
+			while (elementCount == data.length)
+				notFull.await();
+			insert(item);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E item;
+		for (int i = 0; i < SPINS; i++)
+			if ((item = deQueue()) != null)
+				return item;
+		lock.lockInterruptibly();
+		try {
+			while (elementCount == 0)
+				notEmpty.await();
+			return extract();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(E item, long timeout, TimeUnit unit) throws InterruptedException {
+		if (item == null)
+			throw new NullPointerException();
+		for (int i = 0; i < SPINS; i++)
+			if (enQueue(item) != null)
+				return true;
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (elementCount == data.length) {
+				if (nanos <= 0)
+					return false;
+				nanos = notFull.awaitNanos(nanos);
+			}
+			insert(item);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		E item;
+		for (int i = 0; i < SPINS; i++)
+			if ((item = deQueue()) != null)
+				return item;
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (elementCount == 0) {
+				if (nanos <= 0)
+					return null;
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return extract();
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
@@ -43,7 +143,34 @@ public class CircularQueue<E> implements Queue<E> {
 
 	@Override
 	public int size() {
-		return tail - front;
+		lock.lock();
+		try {
+			return elementCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Must hold the lock and have a free slot
+	private void insert(E item) {
+		int index = front + elementCount;
+		if (index >= data.length)
+			index -= data.length;
+		data[index] = item;
+		elementCount++;
+		notEmpty.signal();
+	}
+
+	// Must hold the lock and have an element
+	@SuppressWarnings("unchecked")
+	private E extract() {
+		E item = (E) data[front];
+		data[front] = null;
+		if (++front == data.length)
+			front = 0;
+		elementCount--;
+		notFull.signal();
+		return item;
 	}
 
 }
@@ -0,0 +1,173 @@
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Bounded multi-producer/multi-consumer ring buffer (Dmitry Vyukov's
+ * algorithm). Every slot carries a sequence number telling whether it is ready
+ * to be written or read, so producers and consumers only CAS on their own
+ * counter and never take a lock.
+ *
+ * The counters are 64-bit, so they do not overflow in practice, and they are
+ * padded to separate cache lines to avoid false sharing between producers and
+ * consumers.
+ */
+public class ConcurrentCircularQueue<E> implements Queue<E> {
+
+	private final Object[] data;
+	private final AtomicLongArray sequence;
+	private final int mask;
+	private final PaddedCounter tail = new PaddedCounter(); // next position to enqueue
+	private final PaddedCounter front = new PaddedCounter(); // next position to dequeue
+
+	/**
+	 * @param capacity maximum number of elements, rounded up to a power of two
+	 */
+	public ConcurrentCircularQueue(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Invalid capacity");
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+		data = new Object[size];
+		sequence = new AtomicLongArray(size);
+		mask = size - 1;
+		for (int i = 0; i < size; i++)
+			sequence.set(i, i);
+	}
+
+	@Override
+	public E enQueue(E item) {
+		if (item == null)
+			throw new NullPointerException();
+		long pos = tail.get();
+		while (true) {
+			int index = (int) pos & mask;
+			long diff = sequence.get(index) - pos;
+			if (diff == 0) { // slot is free for this position
+				if (tail.compareAndSet(pos, pos + 1)) {
+					data[index] = item;
+					sequence.lazySet(index, pos + 1); // publish to consumers
+					return item;
+				}
+				pos = tail.get();
+			} else if (diff < 0) { // slot still holds an unread element: full
+				return null;
+			} else { // another producer took this position
+				pos = tail.get();
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E peek() {
+		while (true) {
+			long pos = front.get();
+			int index = (int) pos & mask;
+			if (sequence.get(index) - (pos + 1) < 0)
+				return null; // empty
+			E item = (E) data[index];
+			// Make sure the slot was not consumed and reused while we read it
+			if (front.get() == pos && sequence.get(index) == pos + 1)
+				return item;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E deQueue() {
+		long pos = front.get();
+		while (true) {
+			int index = (int) pos & mask;
+			long diff = sequence.get(index) - (pos + 1);
+			if (diff == 0) { // slot has been published for this position
+				if (front.compareAndSet(pos, pos + 1)) {
+					E item = (E) data[index];
+					data[index] = null; // let GC reclaim the element
+					sequence.lazySet(index, pos + mask + 1); // hand the slot back to producers
+					return item;
+				}
+				pos = front.get();
+			} else if (diff < 0) { // nothing published yet: empty
+				return null;
+			} else { // another consumer took this position
+				pos = front.get();
+			}
+		}
+	}
+
+	/**
+	 * Enqueue as many items as fit, in order.
+	 *
+	 * @return the number of items enqueued
+	 */
+	public int offerAll(E[] items) {
+		int count = 0;
+		while (count < items.length && enQueue(items[count]) != null)
+			count++;
+		return count;
+	}
+
+	/**
+	 * Dequeue up to maxElements items into the given collection.
+	 *
+	 * @return the number of items transferred
+	 */
+	public int drainTo(Collection<? super E> collection, int maxElements) {
+		int count = 0;
+		E item;
+		while (count < maxElements && (item = deQueue()) != null) {
+			collection.add(item);
+			count++;
+		}
+		return count;
+	}
+
+	public int drainTo(Collection<? super E> collection) {
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/** Snapshot of the size; may be stale as soon as it returns */
+	@Override
+	public int size() {
+		while (true) {
+			long head = front.get();
+			long size = tail.get() - head;
+			if (front.get() == head) // consistent snapshot
+				return (int) Math.max(0, Math.min(size, data.length));
+		}
+	}
+
+	public int capacity() {
+		return data.length;
+	}
+
+	// Padding fields surround the counter so it owns a whole cache line
+	static class LeftPadding {
+		long p01, p02, p03, p04, p05, p06, p07;
+	}
+
+	static class CounterValue extends LeftPadding {
+		volatile long value;
+	}
+
+	static final class PaddedCounter extends CounterValue {
+		private static final AtomicLongFieldUpdater<CounterValue> VALUE = AtomicLongFieldUpdater
+				.newUpdater(CounterValue.class, "value");
+		long p11, p12, p13, p14, p15, p16, p17;
+
+		long get() {
+			return value;
+		}
+
+		boolean compareAndSet(long expect, long update) {
+			return VALUE.compareAndSet(this, expect, update);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * Push/enqueue N items into a default-sized Stack and LinearQueue, then drain
+ * them. With geometric growth the time per item stays flat as N grows, and the
+ * capacity returns to its initial size once drained.
+ */
+public class GrowthBenchMark {
+
+	static final int[] SIZES = { 10000, 100000, 1000000, 10000000 };
+
+	public static void main(String[] args) {
+		// Warm up
+		for (int i = 0; i < 5; i++) {
+			fillStack(100000);
+			fillQueue(100000);
+		}
+		Integer item = 42;
+		for (int n : SIZES) {
+			Stack<Integer> stack = new Stack<>();
+			long beginTime = System.nanoTime();
+			for (int i = 0; i < n; i++)
+				stack.push(item);
+			long pushTime = System.nanoTime() - beginTime;
+			int peakCapacity = stack.capacity();
+			while (!stack.isEmpty())
+				stack.pop();
+			long elapsedTime = System.nanoTime() - beginTime;
+			System.out.printf("Stack       n=%-9d push %6.2f ns/item, total %6.2f ns/item, capacity %d -> %d%n", n,
+					(double) pushTime / n, (double) elapsedTime / n, peakCapacity, stack.capacity());
+
+			LinearQueue<Integer> queue = new LinearQueue<>();
+			beginTime = System.nanoTime();
+			for (int i = 0; i < n; i++)
+				queue.enQueue(item);
+			pushTime = System.nanoTime() - beginTime;
+			peakCapacity = queue.capacity();
+			while (!queue.isEmpty())
+				queue.deQueue();
+			elapsedTime = System.nanoTime() - beginTime;
+			System.out.printf("LinearQueue n=%-9d push %6.2f ns/item, total %6.2f ns/item, capacity %d -> %d%n", n,
+					(double) pushTime / n, (double) elapsedTime / n, peakCapacity, queue.capacity());
+		}
+
+		// Steady producer/consumer: the queue must not creep forward forever
+		LinearQueue<Integer> queue = new LinearQueue<>();
+		for (int i = 0; i < 10000000; i++) {
+			queue.enQueue(item);
+			queue.enQueue(item);
+			queue.deQueue();
+			queue.deQueue();
+		}
+		System.out.println("LinearQueue capacity after 10M enQueue/deQueue pairs: " + queue.capacity());
+	}
+
+	static void fillStack(int n) {
+		Stack<Integer> stack = new Stack<>();
+		for (int i = 0; i < n; i++)
+			stack.push(i);
+		while (!stack.isEmpty())
+			stack.pop();
+	}
+
+	static void fillQueue(int n) {
+		LinearQueue<Integer> queue = new LinearQueue<>();
+		for (int i = 0; i < n; i++)
+			queue.enQueue(i);
+		while (!queue.isEmpty())
+			queue.deQueue();
+	}
+}
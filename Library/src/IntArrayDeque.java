@@ -0,0 +1,94 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Growable ring buffer of primitive ints, usable as a FIFO queue
+ * (enQueue/deQueue) or a LIFO stack (push/pop) like java.util.ArrayDeque.
+ * Values are never boxed; removing from an empty deque throws
+ * NoSuchElementException.
+ */
+public class IntArrayDeque {
+
+	private int[] data; // length is always a power of two
+	private int head; // index of the first element
+	private int elementCount;
+
+	public IntArrayDeque(int capacity) {
+		int size = Integer.highestOneBit(Math.max(capacity, 2));
+		if (size < capacity)
+			size <<= 1;
+		data = new int[size];
+		head = elementCount = 0;
+	}
+
+	public IntArrayDeque() {
+		this(16);
+	}
+
+	/** Add at the tail */
+	public int enQueue(int item) {
+		if (elementCount == data.length)
+			grow();
+		data[(head + elementCount) & (data.length - 1)] = item;
+		elementCount++;
+		return item;
+	}
+
+	/** Remove from the head */
+	public int deQueue() {
+		int item = peek();
+		head = (head + 1) & (data.length - 1);
+		elementCount--;
+		return item;
+	}
+
+	/** Add at the head */
+	public int push(int item) {
+		if (elementCount == data.length)
+			grow();
+		head = (head - 1) & (data.length - 1);
+		data[head] = item;
+		elementCount++;
+		return item;
+	}
+
+	/** Remove from the head */
+	public int pop() {
+		return deQueue();
+	}
+
+	/** Element at the head */
+	public int peek() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return data[head];
+	}
+
+	/** Element at the tail */
+	public int peekLast() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return data[(head + elementCount - 1) & (data.length - 1)];
+	}
+
+	public boolean isEmpty() {
+		return elementCount == 0;
+	}
+
+	public int size() {
+		return elementCount;
+	}
+
+	public void clear() {
+		head = elementCount = 0;
+	}
+
+	// Double the capacity and unwrap the elements to the start of the new array
+	private void grow() {
+		int[] newData = new int[data.length << 1];
+		int firstPart = data.length - head;
+		System.arraycopy(data, head, newData, 0, firstPart);
+		System.arraycopy(data, 0, newData, firstPart, head);
+		data = newData;
+		head = 0;
+	}
+}
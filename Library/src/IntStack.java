@@ -0,0 +1,58 @@
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Stack of primitive ints. Same contract as Stack but values are never boxed;
+ * peek/pop on an empty stack throw EmptyStackException since there is no null
+ * to return.
+ */
+public class IntStack {
+
+	private int[] data;
+	private int elementCount;
+
+	public IntStack(int capacity) {
+		data = new int[Math.max(capacity, 1)];
+		elementCount = 0;
+	}
+
+	public IntStack() {
+		this(10);
+	}
+
+	public int push(int item) {
+		if (elementCount == data.length)
+			grow();
+		data[elementCount++] = item;
+		return item;
+	}
+
+	public int peek() {
+		if (isEmpty())
+			throw new EmptyStackException();
+		return data[elementCount - 1];
+	}
+
+	public int pop() {
+		int item = peek();
+		elementCount--;
+		return item;
+	}
+
+	public boolean isEmpty() {
+		return elementCount == 0;
+	}
+
+	public int size() {
+		return elementCount;
+	}
+
+	public void clear() {
+		elementCount = 0;
+	}
+
+	// Double the capacity so that n pushes cost O(n) overall
+	private void grow() {
+		data = Arrays.copyOf(data, data.length << 1);
+	}
+}
@@ -0,0 +1,160 @@
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 4 producers and 4 consumers pass timestamps through a bounded queue using
+ * put/take. Reports throughput and the p50/p99/p999 latency from put to take
+ * for CircularQueue against a naive synchronized wait/notifyAll queue.
+ */
+public class LatencyBenchMark {
+
+	static final int PRODUCERS = 4;
+	static final int CONSUMERS = 4;
+	static final int CAPACITY = 256;
+	static final int PER_PRODUCER = 250000;
+
+	public static void main(String[] args) throws InterruptedException {
+		for (int round = 0; round < 3; round++) {
+			run("CircularQueue", new CircularQueue<Long>(CAPACITY));
+			run("Synchronized ", new SynchronizedQueue<Long>(CAPACITY));
+		}
+	}
+
+	static void run(String name, final BlockingQueue<Long> queue) throws InterruptedException {
+		final int perConsumer = PRODUCERS * PER_PRODUCER / CONSUMERS;
+		final long[][] latencies = new long[CONSUMERS][perConsumer];
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(PRODUCERS + CONSUMERS);
+		for (int p = 0; p < PRODUCERS; p++) {
+			new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < PER_PRODUCER; i++)
+						queue.put(System.nanoTime());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+		for (int c = 0; c < CONSUMERS; c++) {
+			final long[] samples = latencies[c];
+			new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < samples.length; i++)
+						samples[i] = System.nanoTime() - queue.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+		long beginTime = System.nanoTime();
+		start.countDown();
+		done.await();
+		long elapsedTime = System.nanoTime() - beginTime;
+
+		long[] all = new long[CONSUMERS * perConsumer];
+		for (int c = 0; c < CONSUMERS; c++)
+			System.arraycopy(latencies[c], 0, all, c * perConsumer, perConsumer);
+		Arrays.sort(all);
+		System.out.printf("%s %,12d ops/sec  p50 %,9d ns  p99 %,11d ns  p999 %,11d ns%n", name,
+				all.length * 1000000000L / elapsedTime, percentile(all, 0.50), percentile(all, 0.99),
+				percentile(all, 0.999));
+	}
+
+	static long percentile(long[] sorted, double p) {
+		return sorted[(int) Math.min(sorted.length - 1, (long) (p * sorted.length))];
+	}
+
+	/** Baseline: every operation synchronizes on the queue and waits with wait/notifyAll */
+	static class SynchronizedQueue<E> implements BlockingQueue<E> {
+		private final Object[] data;
+		private int front, elementCount;
+
+		SynchronizedQueue(int capacity) {
+			data = new Object[capacity];
+		}
+
+		@Override
+		public synchronized E enQueue(E item) {
+			if (elementCount == data.length)
+				return null;
+			data[(front + elementCount++) % data.length] = item;
+			notifyAll();
+			return item;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public synchronized E peek() {
+			return elementCount == 0 ? null : (E) data[front];
+		}
+
+		@Override
+		public synchronized E deQueue() {
+			E item = peek();
+			if (item != null) {
+				data[front] = null;
+				front = (front + 1) % data.length;
+				elementCount--;
+				notifyAll();
+			}
+			return item;
+		}
+
+		@Override
+		public synchronized void put(E item) throws InterruptedException {
+			while (enQueue(item) == null)
+				wait();
+		}
+
+		@Override
+		public synchronized E take() throws InterruptedException {
+			E item;
+			while ((item = deQueue()) == null)
+				wait();
+			return item;
+		}
+
+		@Override
+		public synchronized boolean offer(E item, long timeout, TimeUnit unit)
+				throws InterruptedException {
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+			while (enQueue(item) == null) {
+				long millis = (deadline - System.nanoTime()) / 1000000;
+				if (millis <= 0)
+					return false;
+				wait(millis);
+			}
+			return true;
+		}
+
+		@Override
+		public synchronized E poll(long timeout, TimeUnit unit) throws InterruptedException {
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+			E item;
+			while ((item = deQueue()) == null) {
+				long millis = (deadline - System.nanoTime()) / 1000000;
+				if (millis <= 0)
+					return null;
+				wait(millis);
+			}
+			return item;
+		}
+
+		@Override
+		public synchronized boolean isEmpty() {
+			return elementCount == 0;
+		}
+
+		@Override
+		public synchronized int size() {
+			return elementCount;
+		}
+	}
+}
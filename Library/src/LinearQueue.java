@@ -1,17 +1,24 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class LinearQueue<E> implements Queue<E> {
+public class LinearQueue<E> implements BlockingQueue<E> {
 
 	private Object[] data;
 	private int elementCount;
 	private int incrementSeed;
-	private int front;
-	private int tail;
+	private int minCapacity;
+	private int front; // index of the first element, wraps around data
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
 
 	public LinearQueue(int capacity, int incrementSeed) {
-		data = new Object[capacity];
+		data = new Object[Math.max(capacity, 1)];
 		this.incrementSeed = incrementSeed;
+		minCapacity = data.length;
 		elementCount = 0;
-		front = tail = -1;
+		front = 0;
 	}
 
 	public LinearQueue(int capacity) {
@@ -24,46 +31,135 @@ public class LinearQueue<E> implements Queue<E> {
 
 	@Override
 	public E enQueue(E item) {
-		if (elementCount == data.length)
-			grow();
-		data[++tail] = item;
-		return item;
+		if (item == null)
+			throw new NullPointerException();
+		lock.lock();
+		try {
+			if (elementCount == data.length)
+				resize(data.length + Math.max(Math.max(data.length >> 1, incrementSeed), 1));
+			data[(front + elementCount) % data.length] = item;
+			elementCount++;
+			notEmpty.signal();
+			return item;
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public E peek() {
-		if (isEmpty())
-			return null;
-		int index = front + 1;
-		return (E) data[index];
+		lock.lock();
+		try {
+			if (elementCount == 0)
+				return null;
+			return (E) data[front];
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public E deQueue() {
-		E obj = peek();
-		if (obj != null)
-			front++;
-		return obj;
+		lock.lock();
+		try {
+			if (elementCount == 0)
+				return null;
+			return extract();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** The queue is unbounded, so this never waits */
+	@Override
+	public void put(E item) {
+		enQueue(item);
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E item;
+		for (int i = 0; i < CircularQueue.SPINS; i++)
+			if ((item = deQueue()) != null)
+				return item;
+		lock.lockInterruptibly();
+		try {
+			while (elementCount == 0)
+				notEmpty.await();
+			return extract();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** The queue is unbounded, so this never waits */
+	@Override
+	public boolean offer(E item, long timeout, TimeUnit unit) {
+		enQueue(item);
+		return true;
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		E item;
+		for (int i = 0; i < CircularQueue.SPINS; i++)
+			if ((item = deQueue()) != null)
+				return item;
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (elementCount == 0) {
+				if (nanos <= 0)
+					return null;
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return extract();
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return front == tail;
+		return size() == 0;
 	}
 
 	@Override
 	public int size() {
-		return tail - front;
+		lock.lock();
+		try {
+			return elementCount;
+		} finally {
+			lock.unlock();
+		}
 	}
 
-	private void grow() {
-		int newCapacity = data.length + incrementSeed;
-		Object[] oldData = data;
+	int capacity() {
+		return data.length;
+	}
 
+	// Must hold the lock and have an element
+	@SuppressWarnings("unchecked")
+	private E extract() {
+		E obj = (E) data[front];
+		data[front] = null; // release the reference for GC
+		front = (front + 1) % data.length;
+		elementCount--;
+		// Give memory back once the queue is mostly empty
+		if (elementCount < data.length >> 2 && data.length >> 1 >= minCapacity)
+			resize(data.length >> 1);
+		return obj;
+	}
+
+	// Copy the elements, unwrapped, to the start of a new array
+	private void resize(int newCapacity) {
+		Object[] oldData = data;
 		data = new Object[newCapacity];
-		for (int i = 0; i < oldData.length; i++)
-			data[i] = oldData[i];
+		int firstPart = Math.min(elementCount, oldData.length - front);
+		System.arraycopy(oldData, front, data, 0, firstPart);
+		System.arraycopy(oldData, 0, data, firstPart, elementCount - firstPart);
+		front = 0;
 	}
 
 }
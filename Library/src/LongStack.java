@@ -0,0 +1,56 @@
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Stack of primitive longs, see IntStack.
+ */
+public class LongStack {
+
+	private long[] data;
+	private int elementCount;
+
+	public LongStack(int capacity) {
+		data = new long[Math.max(capacity, 1)];
+		elementCount = 0;
+	}
+
+	public LongStack() {
+		this(10);
+	}
+
+	public long push(long item) {
+		if (elementCount == data.length)
+			grow();
+		data[elementCount++] = item;
+		return item;
+	}
+
+	public long peek() {
+		if (isEmpty())
+			throw new EmptyStackException();
+		return data[elementCount - 1];
+	}
+
+	public long pop() {
+		long item = peek();
+		elementCount--;
+		return item;
+	}
+
+	public boolean isEmpty() {
+		return elementCount == 0;
+	}
+
+	public int size() {
+		return elementCount;
+	}
+
+	public void clear() {
+		elementCount = 0;
+	}
+
+	// Double the capacity so that n pushes cost O(n) overall
+	private void grow() {
+		data = Arrays.copyOf(data, data.length << 1);
+	}
+}
@@ -0,0 +1,247 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistent FIFO queue kept in memory-mapped segment files, so the backlog
+ * can be larger than the heap and survives a JVM restart.
+ *
+ * Each entry is stored as an int length followed by the serialized bytes. When
+ * an entry does not fit in the current segment, a -1 length marks the end of
+ * that segment and writing continues in the next file. Segments are deleted
+ * once fully consumed. The head and tail positions live in a small mapped
+ * meta file that is updated after every operation.
+ *
+ * null is the "empty" answer of deQueue and peek, so it cannot be queued.
+ *
+ * Not thread-safe.
+ */
+public class MappedQueue<E> implements Queue<E>, Closeable {
+
+	/** Converts elements to and from their stored bytes */
+	public interface Serializer<E> {
+		byte[] toBytes(E item);
+
+		/** Decode the entry between the position and limit of buffer */
+		E fromBytes(ByteBuffer buffer);
+	}
+
+	static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+	private static final int END_OF_SEGMENT = -1;
+	private static final String META_FILE = "queue.meta";
+
+	// Offsets in the meta file
+	private static final int META_READ_SEGMENT = 0;
+	private static final int META_READ_POSITION = 8;
+	private static final int META_WRITE_SEGMENT = 16;
+	private static final int META_WRITE_POSITION = 24;
+	private static final int META_COUNT = 32;
+	private static final int META_SIZE = 40;
+
+	private final File directory;
+	private final int segmentSize;
+	private final Serializer<E> serializer;
+
+	private final MappedByteBuffer meta;
+	private long readSegment, writeSegment, count;
+	private int readPosition, writePosition;
+	private MappedByteBuffer readBuffer, writeBuffer;
+
+	public MappedQueue(File directory, int segmentSize, Serializer<E> serializer) throws IOException {
+		if (segmentSize < 8)
+			throw new IllegalArgumentException("Invalid segment size");
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create " + directory);
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.serializer = serializer;
+
+		meta = map(new File(directory, META_FILE), META_SIZE);
+		readSegment = meta.getLong(META_READ_SEGMENT);
+		readPosition = (int) meta.getLong(META_READ_POSITION);
+		writeSegment = meta.getLong(META_WRITE_SEGMENT);
+		writePosition = (int) meta.getLong(META_WRITE_POSITION);
+		count = meta.getLong(META_COUNT);
+		writeBuffer = map(segmentFile(writeSegment), segmentSize);
+		readBuffer = (readSegment == writeSegment) ? writeBuffer : map(segmentFile(readSegment), segmentSize);
+	}
+
+	/** Queue using Java serialization and 64 MB segments */
+	public MappedQueue(File directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE, new JavaSerializer<E>());
+	}
+
+	@Override
+	public E enQueue(E item) {
+		if (item == null)
+			throw new NullPointerException();
+		byte[] bytes = serializer.toBytes(item);
+		if (bytes.length > segmentSize - 4)
+			throw new IllegalArgumentException("Entry larger than a segment: " + bytes.length + " bytes");
+		if (writePosition + 4 + bytes.length > segmentSize)
+			rollWriteSegment();
+		writeBuffer.putInt(writePosition, bytes.length);
+		ByteBuffer target = writeBuffer.duplicate();
+		target.position(writePosition + 4);
+		target.put(bytes);
+		// Publish the entry only after its bytes are in place
+		writePosition += 4 + bytes.length;
+		count++;
+		meta.putLong(META_WRITE_POSITION, writePosition);
+		meta.putLong(META_COUNT, count);
+		return item;
+	}
+
+	@Override
+	public E peek() {
+		ByteBuffer entry = peekBuffer();
+		return entry == null ? null : serializer.fromBytes(entry);
+	}
+
+	@Override
+	public E deQueue() {
+		ByteBuffer entry = peekBuffer();
+		if (entry == null)
+			return null;
+		E item = serializer.fromBytes(entry);
+		advance(entry.remaining());
+		return item;
+	}
+
+	/**
+	 * Zero-copy view of the head entry, or null if the queue is empty. The
+	 * slice is backed by the mapped file and only valid until the reader moves
+	 * on to the next segment.
+	 */
+	public ByteBuffer peekBuffer() {
+		if (isEmpty())
+			return null;
+		skipEndOfSegment();
+		int length = readBuffer.getInt(readPosition);
+		ByteBuffer entry = readBuffer.duplicate();
+		entry.position(readPosition + 4);
+		entry.limit(readPosition + 4 + length);
+		return entry.slice().asReadOnlyBuffer();
+	}
+
+	/** Dequeue the head entry and return its bytes without deserializing them */
+	public ByteBuffer deQueueBuffer() {
+		ByteBuffer entry = peekBuffer();
+		if (entry != null)
+			advance(entry.remaining());
+		return entry;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	@Override
+	public int size() {
+		return (int) Math.min(count, Integer.MAX_VALUE);
+	}
+
+	/** Flush the mapped pages to disk */
+	public void sync() {
+		writeBuffer.force();
+		meta.force();
+	}
+
+	@Override
+	public void close() {
+		sync();
+	}
+
+	private void advance(int length) {
+		readPosition += 4 + length;
+		count--;
+		meta.putLong(META_READ_POSITION, readPosition);
+		meta.putLong(META_COUNT, count);
+	}
+
+	// Move the reader to the next segment if the current one is finished
+	private void skipEndOfSegment() {
+		if (readSegment == writeSegment)
+			return;
+		if (readPosition + 4 <= segmentSize && readBuffer.getInt(readPosition) != END_OF_SEGMENT)
+			return;
+		File consumed = segmentFile(readSegment);
+		readSegment++;
+		readPosition = 0;
+		readBuffer = (readSegment == writeSegment) ? writeBuffer : mapUnchecked(segmentFile(readSegment));
+		meta.putLong(META_READ_SEGMENT, readSegment);
+		meta.putLong(META_READ_POSITION, readPosition);
+		consumed.delete(); // best effort: some platforms refuse while the file is still mapped
+	}
+
+	private void rollWriteSegment() {
+		if (writePosition + 4 <= segmentSize)
+			writeBuffer.putInt(writePosition, END_OF_SEGMENT);
+		writeBuffer.force();
+		writeSegment++;
+		writePosition = 0;
+		writeBuffer = mapUnchecked(segmentFile(writeSegment));
+		meta.putLong(META_WRITE_POSITION, writePosition);
+		meta.putLong(META_WRITE_SEGMENT, writeSegment);
+	}
+
+	private File segmentFile(long segment) {
+		return new File(directory, String.format("segment-%016d.dat", segment));
+	}
+
+	private MappedByteBuffer mapUnchecked(File file) {
+		try {
+			return map(file, segmentSize);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static MappedByteBuffer map(File file, int size) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// The mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+	}
+
+	/** Serializer based on ObjectOutputStream, for any Serializable element */
+	public static class JavaSerializer<E> implements Serializer<E> {
+
+		@Override
+		public byte[] toBytes(E item) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject((Serializable) item);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return bytes.toByteArray();
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public E fromBytes(ByteBuffer buffer) {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.duplicate().get(bytes);
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+				return (E) in.readObject();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (ClassNotFoundException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,172 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Time and bytes allocated by the generic Stack/LinearQueue against their
+ * primitive counterparts on a bracket-matching and a grid BFS workload.
+ */
+public class PrimitiveCollectionsBenchMark {
+
+	static final int ROUNDS = 5;
+	static final int GRID = 500; // GRID x GRID open maze
+	static final int[] dx = { 1, -1, 0, 0 };
+	static final int[] dy = { 0, 0, 1, -1 };
+
+	static long sink; // keep results alive so the JIT cannot drop the work
+
+	public static void main(String[] args) {
+		String expression = brackets(2000000);
+		for (int round = 0; round < ROUNDS; round++) {
+			System.out.println("Round " + (round + 1));
+			long beginTime = System.nanoTime(), beginBytes = allocatedBytes();
+			sink += isBalancedBoxed(expression) ? 1 : 0;
+			report("Stack<Character> brackets", beginTime, beginBytes);
+
+			beginTime = System.nanoTime();
+			beginBytes = allocatedBytes();
+			sink += isBalanced(expression) ? 1 : 0;
+			report("CharStack brackets", beginTime, beginBytes);
+
+			beginTime = System.nanoTime();
+			beginBytes = allocatedBytes();
+			sink += bfsBoxed(GRID, GRID);
+			report("LinearQueue<Integer> BFS", beginTime, beginBytes);
+
+			beginTime = System.nanoTime();
+			beginBytes = allocatedBytes();
+			sink += bfs(GRID, GRID);
+			report("IntArrayDeque BFS", beginTime, beginBytes);
+
+			beginTime = System.nanoTime();
+			beginBytes = allocatedBytes();
+			sink += pushPopBoxed(1000000);
+			report("Stack<Integer> push/pop", beginTime, beginBytes);
+
+			beginTime = System.nanoTime();
+			beginBytes = allocatedBytes();
+			sink += pushPop(1000000);
+			report("IntStack push/pop", beginTime, beginBytes);
+		}
+		System.out.println(sink);
+	}
+
+	static void report(String name, long beginTime, long beginBytes) {
+		long elapsedTime = System.nanoTime() - beginTime;
+		long bytes = allocatedBytes() - beginBytes;
+		System.out.println("Elapsed Time is " + elapsedTime / 1000 + " usec, allocated " + bytes / 1024 + " KB ("
+				+ name + ")");
+	}
+
+	/** Bytes allocated so far by the current thread, or 0 if the JVM cannot tell */
+	static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return 0;
+	}
+
+	static String brackets(int pairs) {
+		StringBuilder sb = new StringBuilder(pairs * 2);
+		String open = "([{", close = ")]}";
+		for (int i = 0; i < pairs; i++)
+			sb.append(open.charAt(i % 3));
+		for (int i = pairs - 1; i >= 0; i--)
+			sb.append(close.charAt(i % 3));
+		return sb.toString();
+	}
+
+	static boolean isBalancedBoxed(String expression) {
+		Stack<Character> openingBrackets = new Stack<>(expression.length());
+		for (int i = 0; i < expression.length(); i++) {
+			char c = expression.charAt(i);
+			if (c == '{' || c == '[' || c == '(') {
+				openingBrackets.push(c);
+			} else {
+				Character open = openingBrackets.pop();
+				if (open == null || !isMatched(open, c))
+					return false;
+			}
+		}
+		return openingBrackets.isEmpty();
+	}
+
+	static boolean isBalanced(String expression) {
+		CharStack openingBrackets = new CharStack(expression.length());
+		for (int i = 0; i < expression.length(); i++) {
+			char c = expression.charAt(i);
+			if (c == '{' || c == '[' || c == '(') {
+				openingBrackets.push(c);
+			} else {
+				if (openingBrackets.isEmpty() || !isMatched(openingBrackets.pop(), c))
+					return false;
+			}
+		}
+		return openingBrackets.isEmpty();
+	}
+
+	static boolean isMatched(char open, char close) {
+		return open == '(' && close == ')' || open == '[' && close == ']' || open == '{' && close == '}';
+	}
+
+	/** BFS from the corner, storing cells as row * m + col in a boxed queue */
+	static int bfsBoxed(int n, int m) {
+		int[] visited = new int[n * m];
+		LinearQueue<Integer> queue = new LinearQueue<>(n * m);
+		queue.enQueue(0);
+		visited[0] = 1;
+		int farthest = 0;
+		while (!queue.isEmpty()) {
+			int cell = queue.deQueue();
+			int r = cell / m, c = cell % m;
+			farthest = Math.max(farthest, visited[cell]);
+			for (int k = 0; k < 4; k++) {
+				int xx = r + dx[k], yy = c + dy[k];
+				if (xx >= 0 && yy >= 0 && xx < n && yy < m && visited[xx * m + yy] == 0) {
+					visited[xx * m + yy] = visited[cell] + 1;
+					queue.enQueue(xx * m + yy);
+				}
+			}
+		}
+		return farthest;
+	}
+
+	static int bfs(int n, int m) {
+		int[] visited = new int[n * m];
+		IntArrayDeque queue = new IntArrayDeque(n * m);
+		queue.enQueue(0);
+		visited[0] = 1;
+		int farthest = 0;
+		while (!queue.isEmpty()) {
+			int cell = queue.deQueue();
+			int r = cell / m, c = cell % m;
+			farthest = Math.max(farthest, visited[cell]);
+			for (int k = 0; k < 4; k++) {
+				int xx = r + dx[k], yy = c + dy[k];
+				if (xx >= 0 && yy >= 0 && xx < n && yy < m && visited[xx * m + yy] == 0) {
+					visited[xx * m + yy] = visited[cell] + 1;
+					queue.enQueue(xx * m + yy);
+				}
+			}
+		}
+		return farthest;
+	}
+
+	static long pushPopBoxed(int count) {
+		Stack<Integer> stack = new Stack<>(count);
+		for (int i = 0; i < count; i++)
+			stack.push(i);
+		long sum = 0;
+		while (!stack.isEmpty())
+			sum += stack.pop();
+		return sum;
+	}
+
+	static long pushPop(int count) {
+		IntStack stack = new IntStack(count);
+		for (int i = 0; i < count; i++)
+			stack.push(i);
+		long sum = 0;
+		while (!stack.isEmpty())
+			sum += stack.pop();
+		return sum;
+	}
+}
@@ -0,0 +1,94 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Throughput of ConcurrentCircularQueue against ArrayBlockingQueue with the
+ * same number of producer and consumer threads.
+ */
+public class QueueBenchMark {
+
+	static final int CAPACITY = 1024;
+	static final int OPERATIONS = 4000000;
+	static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+	public static void main(String[] args) throws InterruptedException {
+		// Warm up so both queues are compiled before measuring
+		for (int i = 0; i < 3; i++) {
+			runCircular(4);
+			runBlocking(4);
+		}
+		for (int threads : THREADS) {
+			long elapsedTime = runCircular(threads);
+			System.out.println(threads + " threads: " + opsPerSec(elapsedTime) + " ops/sec (ConcurrentCircularQueue)");
+			elapsedTime = runBlocking(threads);
+			System.out.println(threads + " threads: " + opsPerSec(elapsedTime) + " ops/sec (ArrayBlockingQueue)");
+		}
+	}
+
+	static long opsPerSec(long elapsedTime) {
+		return OPERATIONS * 1000000000L / elapsedTime;
+	}
+
+	static long runCircular(int threads) throws InterruptedException {
+		final ConcurrentCircularQueue<Integer> queue = new ConcurrentCircularQueue<>(CAPACITY);
+		final int perThread = OPERATIONS / threads;
+		final Integer item = 42;
+		return run(threads, new Runnable() {
+			public void run() {
+				for (int i = 0; i < perThread; i++)
+					while (queue.enQueue(item) == null)
+						Thread.yield();
+			}
+		}, new Runnable() {
+			public void run() {
+				for (int i = 0; i < perThread; i++)
+					while (queue.deQueue() == null)
+						Thread.yield();
+			}
+		});
+	}
+
+	static long runBlocking(int threads) throws InterruptedException {
+		final ArrayBlockingQueue<Integer> queue = new ArrayBlockingQueue<>(CAPACITY);
+		final int perThread = OPERATIONS / threads;
+		final Integer item = 42;
+		return run(threads, new Runnable() {
+			public void run() {
+				for (int i = 0; i < perThread; i++)
+					while (!queue.offer(item))
+						Thread.yield();
+			}
+		}, new Runnable() {
+			public void run() {
+				for (int i = 0; i < perThread; i++)
+					while (queue.poll() == null)
+						Thread.yield();
+			}
+		});
+	}
+
+	/** Start the producers and consumers together and time until all finish */
+	static long run(int threads, final Runnable producer, final Runnable consumer) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads * 2);
+		for (int i = 0; i < threads * 2; i++) {
+			final Runnable task = (i % 2 == 0) ? producer : consumer;
+			new Thread(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+						task.run();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+		long beginTime = System.nanoTime();
+		start.countDown();
+		done.await();
+		return System.nanoTime() - beginTime;
+	}
+}
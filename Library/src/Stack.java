@@ -4,10 +4,12 @@ public class Stack<E> {
 	private Object[] data;
 	private int elementCount;
 	private int incrementSeed;
+	private int minCapacity;
 
 	public Stack(int capacity, int incrementSeed) {
-		data = new Object[capacity];
+		data = new Object[Math.max(capacity, 1)];
 		this.incrementSeed = incrementSeed;
+		minCapacity = data.length;
 		elementCount = 0;
 	}
 
@@ -21,7 +23,7 @@ public class Stack<E> {
 
 	public E push(E item) {
 		if (size() == data.length)
-			grow();
+			resize(data.length + Math.max(Math.max(data.length >> 1, incrementSeed), 1));
 		data[elementCount++] = item;
 		return item;
 	}
@@ -36,8 +38,12 @@ public class Stack<E> {
 
 	public E pop() {
 		E obj = peek();
-		if (obj != null)
-			elementCount--;
+		if (obj != null) {
+			data[--elementCount] = null; // release the reference for GC
+			// Give memory back once the stack is mostly empty
+			if (elementCount < data.length >> 2 && data.length >> 1 >= minCapacity)
+				resize(data.length >> 1);
+		}
 		return obj;
 	}
 
@@ -49,12 +55,13 @@ public class Stack<E> {
 		return elementCount;
 	}
 
-	private void grow() {
-		int newCapacity = data.length + incrementSeed;
-		Object[] oldData = data;
+	int capacity() {
+		return data.length;
+	}
 
+	private void resize(int newCapacity) {
+		Object[] oldData = data;
 		data = new Object[newCapacity];
-		for (int i = 0; i < oldData.length; i++)
-			data[i] = oldData[i];
+		System.arraycopy(oldData, 0, data, 0, elementCount);
 	}
 }
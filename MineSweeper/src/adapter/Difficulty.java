@@ -0,0 +1,23 @@
+package adapter;
+
+/**
+ * Board size and number of mines of each level
+ */
+public enum Difficulty {
+	BEGINNER("Beginner", 8, 8, 10), INTERMEDIATE("Intermediate", 16, 16, 40), EXPERT("Expert", 16, 30, 99);
+
+	public final String label;
+	public final int rows, cols, mines;
+
+	Difficulty(String label, int rows, int cols, int mines) {
+		this.label = label;
+		this.rows = rows;
+		this.cols = cols;
+		this.mines = mines;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+}
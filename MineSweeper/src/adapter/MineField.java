@@ -0,0 +1,306 @@
+package adapter;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Headless Mine Sweeper board. Mines, flags and revealed cells are bitsets
+ * packed in long[] (bit row * cols + col), and the number of mines around
+ * every cell is counted once when the mines are placed, so a 1000x1000 board
+ * takes about 1.4 MB. The UI only renders this state.
+ *
+ * A random board places its mines on the first open(), away from the cell
+ * opened, so the first click is always safe. The same seed and first click
+ * always give the same board.
+ */
+public class MineField {
+	public static final int MINE = -1; // reveal() result for a mine
+
+	public final int rows, cols, mines;
+	private final long[] mine, flag, revealed;
+	private final byte[] counts; // mines among the 8 neighbours
+	private int revealedCount, flagCount;
+	private boolean exploded, generated;
+	private final SplittableRandom random; // null if the mines were given
+	private int[] queue = new int[256]; // ring of blank cells whose neighbours are still to open
+
+	/** Board whose mines are placed with random on the first open() */
+	public MineField(int rows, int cols, int mines, SplittableRandom random) {
+		if (rows < 1 || cols < 1 || (long) rows * cols > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid size " + rows + "x" + cols);
+		if (mines < 0 || mines >= rows * cols)
+			throw new IllegalArgumentException("Invalid number of mines " + mines);
+		this.rows = rows;
+		this.cols = cols;
+		this.mines = mines;
+		this.random = random;
+		int words = (rows * cols + 63) >>> 6;
+		mine = new long[words];
+		flag = new long[words];
+		revealed = new long[words];
+		counts = new byte[rows * cols];
+	}
+
+	/** Reproducible board: the same seed and first click give the same mines */
+	public MineField(int rows, int cols, int mines, long seed) {
+		this(rows, cols, mines, new SplittableRandom(seed));
+	}
+
+	/** Board with mines on the given cells (row * cols + col) */
+	public MineField(int rows, int cols, int[] mineCells) {
+		this(rows, cols, mineCells.length, (SplittableRandom) null);
+		for (int cell : mineCells) {
+			if (get(mine, cell))
+				throw new IllegalArgumentException("Two mines on cell " + cell);
+			set(mine, cell);
+		}
+		generated = true;
+		countNeighbours();
+	}
+
+	/**
+	 * Place the mines now with a partial Fisher-Yates shuffle: the cells are
+	 * listed in a flat array with safeCell and its neighbours moved to the
+	 * end, and mines swaps pick the mines among the others. The cost is one
+	 * pass to fill the array plus O(mines), whatever the density. If the
+	 * board is too full to keep the neighbours clear, only safeCell is kept
+	 * clear.
+	 *
+	 * @param safeCell cell (row * cols + col) to keep clear, or -1
+	 */
+	public void generate(int safeCell) {
+		if (generated)
+			throw new IllegalStateException("Mines already placed");
+		int n = rows * cols;
+		int[] cells = new int[n];
+		for (int i = 0; i < n; i++)
+			cells[i] = i;
+		int candidates = n;
+		if (safeCell >= 0) {
+			int row = safeCell / cols, col = safeCell % cols;
+			int area = (Math.min(row + 1, rows - 1) - Math.max(row - 1, 0) + 1)
+					* (Math.min(col + 1, cols - 1) - Math.max(col - 1, 0) + 1);
+			int spread = n - area >= mines ? 1 : 0; // 0: keep only safeCell clear
+			// Highest index first, so each excluded cell is still in its own slot
+			for (int r = Math.min(row + spread, rows - 1); r >= Math.max(row - spread, 0); r--) {
+				for (int c = Math.min(col + spread, cols - 1); c >= Math.max(col - spread, 0); c--) {
+					int cell = r * cols + c;
+					cells[cell] = cells[--candidates];
+					cells[candidates] = cell;
+				}
+			}
+		}
+		for (int i = 0; i < mines; i++) {
+			int j = i + random.nextInt(candidates - i);
+			int cell = cells[j];
+			cells[j] = cells[i];
+			cells[i] = cell;
+			set(mine, cell);
+		}
+		generated = true;
+		countNeighbours();
+	}
+
+	/**
+	 * Board, opened at (row, col), that MineSolver clears without guessing.
+	 * Boards are dealt from random until one passes.
+	 *
+	 * @return the board with its mines placed and every cell covered
+	 * @throws IllegalStateException if no board passes in attempts tries
+	 */
+	public static MineField noGuess(int rows, int cols, int mines, SplittableRandom random, int row, int col,
+			int attempts) {
+		for (int i = 0; i < attempts; i++) {
+			MineField field = new MineField(rows, cols, mines, random.split());
+			field.generate(row * cols + col);
+			if (MineSolver.solve(field, row, col)) {
+				field.reset();
+				return field;
+			}
+		}
+		throw new IllegalStateException("No board without guessing found in " + attempts + " attempts");
+	}
+
+	public boolean isGenerated() {
+		return generated;
+	}
+
+	/** Add one to the count of every neighbour of every mine */
+	private void countNeighbours() {
+		for (int w = 0; w < mine.length; w++) {
+			for (long bits = mine[w]; bits != 0; bits &= bits - 1) {
+				int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+				int row = cell / cols, col = cell % cols;
+				for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++)
+					for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++)
+						counts[r * cols + c]++;
+				counts[cell]--; // the mine itself
+			}
+		}
+	}
+
+	static boolean get(long[] bits, int i) {
+		return (bits[i >>> 6] & (1L << i)) != 0;
+	}
+
+	static void set(long[] bits, int i) {
+		bits[i >>> 6] |= 1L << i;
+	}
+
+	static void clear(long[] bits, int i) {
+		bits[i >>> 6] &= ~(1L << i);
+	}
+
+	/** Word w of the revealed bitset, for readers that track changes */
+	long revealedWord(int w) {
+		return revealed[w];
+	}
+
+	public boolean inside(int row, int col) {
+		return row >= 0 && row < rows && col >= 0 && col < cols;
+	}
+
+	public boolean isMine(int row, int col) {
+		return get(mine, row * cols + col);
+	}
+
+	public boolean isFlagged(int row, int col) {
+		return get(flag, row * cols + col);
+	}
+
+	public boolean isRevealed(int row, int col) {
+		return get(revealed, row * cols + col);
+	}
+
+	/** Number of mines around (row, col) */
+	public int count(int row, int col) {
+		return counts[row * cols + col];
+	}
+
+	/**
+	 * Reveal one cell
+	 *
+	 * @return the number of mines around it, or MINE
+	 */
+	public int reveal(int row, int col) {
+		int cell = row * cols + col;
+		if (!generated)
+			generate(cell);
+		if (get(mine, cell)) {
+			exploded = true;
+			return MINE;
+		}
+		if (!get(revealed, cell)) {
+			set(revealed, cell);
+			revealedCount++;
+		}
+		return counts[cell];
+	}
+
+	/**
+	 * Reveal (row, col) and, if no mine is around it, every cell connected to
+	 * it through such blank cells, the way a player would open them one by one.
+	 * Flagged cells are left covered. The flood is a breadth-first search over
+	 * a ring queue of cell indexes; the revealed bitset marks the cells already
+	 * visited, so each cell is queued at most once and nothing is allocated
+	 * unless the queue has to grow.
+	 *
+	 * @param listener called with the index of every cell revealed, or null
+	 * @return the number of cells revealed, or MINE
+	 */
+	public int open(int row, int col, IntConsumer listener) {
+		int cell = row * cols + col;
+		if (!generated)
+			generate(cell);
+		if (get(mine, cell)) {
+			exploded = true;
+			return MINE;
+		}
+		if (get(revealed, cell) || get(flag, cell))
+			return 0;
+		set(revealed, cell);
+		if (listener != null)
+			listener.accept(cell);
+		int opened = 1, head = 0, tail = 0;
+		if (counts[cell] == 0)
+			queue[tail++] = cell;
+		while (head != tail) {
+			cell = queue[head++ & (queue.length - 1)];
+			row = cell / cols;
+			col = cell - row * cols;
+			for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+				for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++) {
+					int next = r * cols + c;
+					if (get(revealed, next) || get(flag, next))
+						continue;
+					set(revealed, next);
+					opened++;
+					if (listener != null)
+						listener.accept(next);
+					if (counts[next] == 0) {
+						if (tail - head == queue.length) { // full: unroll into a ring twice as big
+							int[] bigger = new int[queue.length * 2];
+							for (int i = 0; i < queue.length; i++)
+								bigger[i] = queue[(head + i) & (queue.length - 1)];
+							tail -= head;
+							head = 0;
+							queue = bigger;
+						}
+						queue[tail++ & (queue.length - 1)] = next;
+					}
+				}
+			}
+		}
+		revealedCount += opened;
+		return opened;
+	}
+
+	public int open(int row, int col) {
+		return open(row, col, null);
+	}
+
+	/**
+	 * Plant or remove a flag on a cell that is not revealed
+	 *
+	 * @return true if the cell is now flagged
+	 */
+	public boolean toggleFlag(int row, int col) {
+		int cell = row * cols + col;
+		if (get(revealed, cell))
+			return false;
+		if (get(flag, cell)) {
+			clear(flag, cell);
+			flagCount--;
+			return false;
+		}
+		set(flag, cell);
+		flagCount++;
+		return true;
+	}
+
+	/** Cover every cell and remove the flags; the mines stay */
+	public void reset() {
+		Arrays.fill(flag, 0);
+		Arrays.fill(revealed, 0);
+		revealedCount = flagCount = 0;
+		exploded = false;
+	}
+
+	/** Cells without a mine that are still covered */
+	public int cellsLeft() {
+		return rows * cols - mines - revealedCount;
+	}
+
+	public int flags() {
+		return flagCount;
+	}
+
+	public boolean isWon() {
+		return cellsLeft() == 0 && !exploded;
+	}
+
+	public boolean isLost() {
+		return exploded;
+	}
+}
@@ -0,0 +1,742 @@
+package adapter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Works out what a player can know about a MineField from the numbers on its
+ * revealed cells and the number of mines; flags are ignored, since a
+ * player's flags may be wrong. The deductions, cheapest first:
+ * <ol>
+ * <li>single-point rules: around a number whose known mines already make its
+ * count, the other covered cells are safe; if its unknown cells are exactly
+ * its missing mines, they are all mines;</li>
+ * <li>subset reduction: if all the unknown cells of a number are also around
+ * another number, the other's extra cells hold the difference of their
+ * missing mines, so they are all safe or all mines when it is 0 or their
+ * count;</li>
+ * <li>enumeration: the unknown cells next to numbers split into independent
+ * components, and each component is enumerated by backtracking, counting its
+ * solutions with k mines and how many of them put a mine on each cell. The
+ * components and the cells away from any number are then weighed by the
+ * number of ways to place the remaining mines, which gives the exact
+ * probability of a mine on every cell. Cells at 0 or 1 are deductions.</li>
+ * </ol>
+ * The solver is incremental: it takes in only the cells revealed since the
+ * last call, the rules revisit only the numbers around cells that changed,
+ * and enumerations are memoized on a component's cells and numbers, so only
+ * the components a reveal touched are enumerated again. An expert board is
+ * analyzed in a few microseconds per click.
+ */
+public class MineSolver {
+	private static final byte UNKNOWN = 0, SAFE = 1, MINE = 2;
+	static final int MAX_ENUMERATED = 64; // larger components get estimates
+	static final int NODE_BUDGET = 1 << 20; // backtracking nodes per component
+	static final int EXACT_FRONTIER = 2048; // larger frontiers weigh each mine by the odds
+
+	private final MineField field;
+	private final int rows, cols;
+	private final long[] seen; // revealed cells already taken in
+	private final long[] queued, listed; // cells in work, numbers in the numbers list
+	private final byte[] state; // what is known of each cell; revealed cells are SAFE
+	private final byte[] missing; // revealed cell: its count minus the known mines around it
+	private final byte[] unknown; // revealed cell: the UNKNOWN cells around it
+	private final int[] work; // stack of numbers to apply the rules to
+	private int workSize;
+	private int revealedCount, safeCovered, knownMines;
+	private int[] numbers = new int[64], safeCells = new int[64], mineCells = new int[64];
+	private int numberCount, safeCount, mineCount;
+
+	private final int[] stamp; // stamp[cell] == frontierStamp: cell is on the last frontier
+	private final double[] probability; // of the frontier cells
+	private int frontierStamp;
+	private int[] frontier = new int[64];
+	private int frontierSize;
+	private double interiorProbability; // of the unknown cells away from any number
+	private boolean exact;
+	private Map<Key, Enumeration> memo = new HashMap<>();
+	private double[] logFactorial;
+
+	public MineSolver(MineField field) {
+		this.field = field;
+		this.rows = field.rows;
+		this.cols = field.cols;
+		int n = rows * cols, words = (n + 63) >>> 6;
+		seen = new long[words];
+		queued = new long[words];
+		listed = new long[words];
+		state = new byte[n];
+		missing = new byte[n];
+		unknown = new byte[n];
+		work = new int[n];
+		stamp = new int[n];
+		probability = new double[n];
+		interiorProbability = (double) field.mines / n;
+	}
+
+	/** Forget everything, as for a board that was just reset */
+	private void clear() {
+		Arrays.fill(seen, 0);
+		Arrays.fill(queued, 0);
+		Arrays.fill(listed, 0);
+		Arrays.fill(state, UNKNOWN);
+		workSize = revealedCount = safeCovered = knownMines = 0;
+		numberCount = safeCount = mineCount = frontierSize = 0;
+		interiorProbability = (double) field.mines / (rows * cols);
+	}
+
+	/**
+	 * Take in the cells revealed since the last call and apply the rules
+	 * around them. Revealed words are compared 64 cells at a time, so an
+	 * unchanged board costs rows * cols / 64 comparisons.
+	 */
+	public void update() {
+		for (int w = 0; w < seen.length; w++) {
+			if ((seen[w] & ~field.revealedWord(w)) != 0) { // covered again: the field was reset
+				clear();
+				break;
+			}
+		}
+		for (int w = 0; w < seen.length; w++) {
+			long now = field.revealedWord(w), fresh = now & ~seen[w];
+			seen[w] = now;
+			for (; fresh != 0; fresh &= fresh - 1)
+				takeRevealed((w << 6) + Long.numberOfTrailingZeros(fresh));
+		}
+		propagate();
+	}
+
+	/** Update, then enumerate the frontier until no new cell is known */
+	public void analyze() {
+		update();
+		while (enumerate())
+			propagate();
+	}
+
+	private void takeRevealed(int cell) {
+		revealedCount++;
+		if (state[cell] == UNKNOWN)
+			setState(cell, SAFE);
+		safeCovered--;
+		int row = cell / cols, col = cell % cols, u = 0, m = 0;
+		for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++)
+			for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++)
+				if (state[r * cols + c] == UNKNOWN)
+					u++;
+				else if (state[r * cols + c] == MINE)
+					m++;
+		unknown[cell] = (byte) u;
+		missing[cell] = (byte) (field.count(row, col) - m);
+		if (u > 0) {
+			push(cell);
+			MineField.set(listed, cell);
+			numbers = add(numbers, numberCount++, cell);
+		}
+	}
+
+	/** Record a deduction and requeue the numbers around it */
+	private void setState(int cell, byte s) {
+		state[cell] = s;
+		if (s == MINE) {
+			knownMines++;
+			mineCells = add(mineCells, mineCount++, cell);
+		} else {
+			safeCovered++;
+			safeCells = add(safeCells, safeCount++, cell);
+		}
+		int row = cell / cols, col = cell % cols;
+		for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+			for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++) {
+				int n = r * cols + c;
+				if (n != cell && MineField.get(seen, n)) {
+					unknown[n]--;
+					if (s == MINE)
+						missing[n]--;
+					push(n);
+				}
+			}
+		}
+	}
+
+	private static int[] add(int[] list, int size, int value) {
+		if (size == list.length)
+			list = Arrays.copyOf(list, size * 2);
+		list[size] = value;
+		return list;
+	}
+
+	private void push(int cell) {
+		if (!MineField.get(queued, cell)) {
+			MineField.set(queued, cell);
+			work[workSize++] = cell;
+		}
+	}
+
+	/** Single-point rules, then subset reduction, until work is empty */
+	private void propagate() {
+		while (workSize > 0) {
+			int a = work[--workSize];
+			MineField.clear(queued, a);
+			if (unknown[a] == 0)
+				continue;
+			if (missing[a] == 0 || missing[a] == unknown[a]) {
+				setAround(a, -1, missing[a] == 0 ? SAFE : MINE);
+				continue;
+			}
+			int row = a / cols, col = a % cols;
+			for (int r = Math.max(row - 2, 0); r <= Math.min(row + 2, rows - 1); r++) {
+				for (int c = Math.max(col - 2, 0); c <= Math.min(col + 2, cols - 1); c++) {
+					int b = r * cols + c;
+					if (b == a || unknown[a] == 0 || !MineField.get(seen, b) || unknown[b] == 0)
+						continue;
+					if (aroundBoth(a, b))
+						reduce(b, a);
+					else if (aroundBoth(b, a))
+						reduce(a, b);
+				}
+			}
+		}
+	}
+
+	/** Whether every unknown cell around number x is also around y */
+	private boolean aroundBoth(int x, int y) {
+		int row = x / cols, col = x % cols, yRow = y / cols, yCol = y % cols;
+		for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++)
+			for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++)
+				if (state[r * cols + c] == UNKNOWN && (Math.abs(r - yRow) > 1 || Math.abs(c - yCol) > 1))
+					return false;
+		return true;
+	}
+
+	/** The unknown cells of small are all around big: the rest of big's hold the difference */
+	private void reduce(int big, int small) {
+		int cells = unknown[big] - unknown[small], mines = missing[big] - missing[small];
+		if (cells > 0 && (mines == 0 || mines == cells))
+			setAround(big, small, mines == 0 ? SAFE : MINE);
+	}
+
+	/** Set the unknown cells around number, except those around except (or -1), to s */
+	private void setAround(int number, int except, byte s) {
+		int row = number / cols, col = number % cols;
+		int exceptRow = except < 0 ? -3 : except / cols, exceptCol = except < 0 ? -3 : except % cols;
+		for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++)
+			for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++)
+				if (state[r * cols + c] == UNKNOWN && (Math.abs(r - exceptRow) > 1 || Math.abs(c - exceptCol) > 1))
+					setState(r * cols + c, s);
+	}
+
+	/**
+	 * Split the frontier into components, enumerate them (or take them from
+	 * the memo) and combine them into probabilities
+	 *
+	 * @return true if a cell turned out certain
+	 */
+	private boolean enumerate() {
+		int kept = 0;
+		for (int i = 0; i < numberCount; i++) {
+			if (unknown[numbers[i]] > 0)
+				numbers[kept++] = numbers[i];
+			else
+				MineField.clear(listed, numbers[i]);
+		}
+		numberCount = kept;
+		frontierStamp++;
+		frontierSize = 0;
+		Map<Key, Enumeration> next = new HashMap<>();
+		Enumeration[] components = new Enumeration[4];
+		int componentCount = 0, frontierMines = 0;
+		int[] nums = new int[16];
+		for (int i = 0; i < numberCount; i++) {
+			if (stamp[numbers[i]] == frontierStamp)
+				continue;
+			int first = frontierSize, numCount = 0;
+			stamp[numbers[i]] = frontierStamp;
+			nums = add(nums, numCount++, numbers[i]);
+			for (int j = 0; j < numCount; j++) {
+				int row = nums[j] / cols, col = nums[j] % cols;
+				for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+					for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++) {
+						int cell = r * cols + c;
+						if (state[cell] != UNKNOWN || stamp[cell] == frontierStamp)
+							continue;
+						stamp[cell] = frontierStamp;
+						frontier = add(frontier, frontierSize++, cell);
+						for (int r2 = Math.max(r - 1, 0); r2 <= Math.min(r + 1, rows - 1); r2++) {
+							for (int c2 = Math.max(c - 1, 0); c2 <= Math.min(c + 1, cols - 1); c2++) {
+								int number = r2 * cols + c2;
+								if (MineField.get(seen, number) && unknown[number] > 0
+										&& stamp[number] != frontierStamp) {
+									stamp[number] = frontierStamp;
+									nums = add(nums, numCount++, number);
+								}
+							}
+						}
+					}
+				}
+			}
+			// The cells stay in the order found, along the frontier, for the search
+			int size = frontierSize - first;
+			int[] data = new int[1 + size + numCount * 2];
+			data[0] = size;
+			System.arraycopy(frontier, first, data, 1, size);
+			Arrays.sort(data, 1, 1 + size);
+			Arrays.sort(nums, 0, numCount);
+			for (int j = 0; j < numCount; j++) {
+				data[1 + size + j * 2] = nums[j];
+				data[2 + size + j * 2] = missing[nums[j]];
+			}
+			Key key = new Key(data);
+			Enumeration e = memo.get(key);
+			if (e == null)
+				e = enumerate(Arrays.copyOfRange(frontier, first, frontierSize), Arrays.copyOf(nums, numCount));
+			next.put(key, e);
+			if (componentCount == components.length)
+				components = Arrays.copyOf(components, componentCount * 2);
+			components[componentCount++] = e;
+			if (!e.exact)
+				frontierMines += Math.round(e.expected);
+		}
+		memo = next;
+		return combine(components, componentCount, frontierMines);
+	}
+
+	/**
+	 * Backtracking over one component. Cells around the same numbers are
+	 * interchangeable, so they are grouped and the search picks how many
+	 * mines each group holds, weighing by the ways to place them.
+	 */
+	private Enumeration enumerate(int[] cells, int[] nums) {
+		int n = cells.length;
+		Enumeration e = new Enumeration(cells);
+		if (n <= MAX_ENUMERATED) {
+			int[][] around = new int[n][];
+			int[] group = new int[n], members = new int[n], count = new int[8];
+			int groups = 0;
+			for (int i = 0; i < n; i++) {
+				int row = cells[i] / cols, col = cells[i] % cols, k = 0;
+				for (int j = 0; j < nums.length; j++)
+					if (Math.abs(nums[j] / cols - row) <= 1 && Math.abs(nums[j] % cols - col) <= 1)
+						count = add(count, k++, j);
+				int g = 0;
+				while (g < groups && !Arrays.equals(around[g], Arrays.copyOf(count, k)))
+					g++;
+				if (g == groups)
+					around[groups++] = Arrays.copyOf(count, k);
+				group[i] = g;
+				members[g]++;
+			}
+			Search search = new Search(Arrays.copyOf(around, groups), Arrays.copyOf(members, groups), nums.length);
+			for (int j = 0; j < nums.length; j++) {
+				search.target[j] = missing[nums[j]];
+				search.left[j] = unknown[nums[j]];
+			}
+			e.counts = new double[n + 1];
+			double[][] groupMines = new double[n + 1][groups];
+			if (search.run(0, 0, 1, e.counts, groupMines)) {
+				e.mineCounts = new double[n + 1][n];
+				for (int k = 0; k <= n; k++)
+					for (int i = 0; i < n; i++)
+						e.mineCounts[k][i] = groupMines[k][group[i]] / members[group[i]];
+				e.exact = true;
+				return e;
+			}
+		}
+		// Too big: estimate each cell from the most constrained number around it
+		e.counts = null;
+		e.mineCounts = null;
+		e.estimates = new double[n];
+		for (int i = 0; i < n; i++) {
+			int row = cells[i] / cols, col = cells[i] % cols;
+			double p = 0;
+			for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++)
+				for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++)
+					if (MineField.get(seen, r * cols + c) && unknown[r * cols + c] > 0)
+						p = Math.max(p, (double) missing[r * cols + c] / unknown[r * cols + c]);
+			e.estimates[i] = p;
+			e.expected += p;
+		}
+		return e;
+	}
+
+	/**
+	 * Weigh every component's solutions with k mines by the ways of placing
+	 * the other mines: the other components' solutions times C(interior,
+	 * mines left - mines on the frontier). For each component that sum is
+	 * the product of the components before it, correlated with the weights
+	 * already correlated with the components after it; both are built in one
+	 * pass over the components, so the cost is O(frontier^2).
+	 * Binomials are taken in log space and every vector is rescaled, so huge
+	 * boards do not overflow. Beyond EXACT_FRONTIER cells each extra mine
+	 * is weighed by the odds of the density left instead, which is close
+	 * when the interior is large; components still prove their own cells.
+	 *
+	 * @return true if a cell turned out certain
+	 */
+	private boolean combine(Enumeration[] components, int count, int estimatedMines) {
+		int interior = rows * cols - revealedCount - safeCovered - knownMines - frontierSize;
+		int minesLeft = field.mines - knownMines - estimatedMines;
+		int length = 1; // + cells of the exact components
+		for (int j = 0; j < count; j++)
+			if (components[j].exact)
+				length += components[j].cells.length;
+		exact = estimatedMines == 0 && length <= EXACT_FRONTIER;
+		double[] weight = new double[length]; // weight[K]: ways for K mines on the exact components
+		if (length <= EXACT_FRONTIER) {
+			double maxLog = Double.NEGATIVE_INFINITY;
+			for (int k = 0; k < length; k++)
+				if (minesLeft - k >= 0 && minesLeft - k <= interior)
+					maxLog = Math.max(maxLog, logChoose(interior, minesLeft - k));
+			for (int k = 0; k < length; k++)
+				if (minesLeft - k >= 0 && minesLeft - k <= interior)
+					weight[k] = Math.exp(logChoose(interior, minesLeft - k) - maxLog);
+		} else {
+			double left = minesLeft - (double) minesLeft * length / (interior + length); // expected in the interior
+			double odds = Math.max(left, 0.5) / Math.max(interior - left, 0.5);
+			weight[0] = 1;
+			for (int k = 1; k < length; k++)
+				weight[k] = weight[k - 1] * odds;
+			for (int k = 0; k < length; k++)
+				weight[k] /= weight[length - 1] > 1 ? weight[length - 1] : 1;
+		}
+		// before[j]: product of the exact components before j, as a polynomial in the mines
+		double[][] before = new double[count + 1][];
+		before[0] = new double[] { 1 };
+		for (int j = 0; j < count; j++)
+			before[j + 1] = components[j].exact ? multiply(before[j], components[j].counts) : before[j];
+		double total = 0, interiorMines = 0, interiorSafe = 0;
+		for (int k = 0; k < length; k++) {
+			double w = before[count][k] * weight[k];
+			total += w;
+			interiorMines += w * (minesLeft - k);
+			interiorSafe += w * (interior - minesLeft + k);
+		}
+		if (total == 0) { // only with estimates: fall back to them and the density left
+			exact = false;
+			for (int j = 0; j < count; j++)
+				if (components[j].exact)
+					components[j].estimate(probability);
+				else
+					for (int i = 0; i < components[j].cells.length; i++)
+						probability[components[j].cells[i]] = components[j].estimates[i];
+			interiorProbability = interior > 0 ? Math.min(1, Math.max(0, (double) minesLeft / interior)) : 0;
+			return false;
+		}
+		interiorProbability = interior > 0 ? Math.min(1, Math.max(0, interiorMines / (total * interior))) : 0;
+		boolean progress = false, proves = estimatedMines == 0;
+		double[] after = weight; // sum over the mines o of the components after j of their solutions * weight[t + o]
+		for (int j = count - 1; j >= 0; j--) {
+			Enumeration e = components[j];
+			if (!e.exact) {
+				for (int i = 0; i < e.cells.length; i++)
+					probability[e.cells[i]] = e.estimates[i];
+				continue;
+			}
+			double[] g = new double[e.counts.length]; // weight of this component holding k mines
+			double sum = 0;
+			for (int k = 0; k < g.length; k++) {
+				for (int p = 0; p < before[j].length && k + p < length; p++)
+					g[k] += before[j][p] * after[k + p];
+				sum += e.counts[k] * g[k];
+			}
+			for (int i = 0; i < e.cells.length; i++) {
+				double mine = 0, safe = 0;
+				for (int k = 0; k < g.length; k++) {
+					mine += e.mineCounts[k][i] * g[k];
+					safe += (e.counts[k] - e.mineCounts[k][i]) * g[k];
+				}
+				probability[e.cells[i]] = mine / sum;
+				if (proves && (mine == 0 || safe == 0)) {
+					setState(e.cells[i], mine == 0 ? SAFE : MINE);
+					progress = true;
+				}
+			}
+			after = correlate(after, e.counts);
+		}
+		if (exact && interior > 0 && (interiorMines == 0 || interiorSafe == 0)) {
+			byte s = interiorMines == 0 ? SAFE : MINE;
+			for (int cell = 0; cell < rows * cols; cell++)
+				if (state[cell] == UNKNOWN && stamp[cell] != frontierStamp)
+					setState(cell, s);
+			progress = true;
+		}
+		return progress;
+	}
+
+	/** c[t] = sum over k of counts[k] * w[t + k], for every t of w, rescaled */
+	private static double[] correlate(double[] w, double[] counts) {
+		double[] c = new double[w.length];
+		double max = 0;
+		for (int t = 0; t < w.length; t++) {
+			for (int k = 0; k < counts.length && t + k < w.length; k++)
+				c[t] += counts[k] * w[t + k];
+			max = Math.max(max, c[t]);
+		}
+		if (max > 0)
+			for (int t = 0; t < c.length; t++)
+				c[t] /= max;
+		return c;
+	}
+
+	private static double[] multiply(double[] a, double[] b) {
+		double[] product = new double[a.length + b.length - 1];
+		double max = 0;
+		for (int i = 0; i < a.length; i++)
+			for (int j = 0; j < b.length; j++)
+				max = Math.max(max, product[i + j] += a[i] * b[j]);
+		if (max > 0)
+			for (int i = 0; i < product.length; i++)
+				product[i] /= max;
+		return product;
+	}
+
+	private double logChoose(int n, int k) {
+		if (logFactorial == null || logFactorial.length <= n) {
+			int from = logFactorial == null ? 1 : logFactorial.length;
+			logFactorial = logFactorial == null ? new double[n + 1] : Arrays.copyOf(logFactorial, n + 1);
+			for (int i = from; i <= n; i++)
+				logFactorial[i] = logFactorial[i - 1] + Math.log(i);
+		}
+		return logFactorial[n] - logFactorial[k] - logFactorial[n - k];
+	}
+
+	/** Covered cells known to be safe, as row * cols + col */
+	public int[] safeCells() {
+		int kept = 0;
+		for (int i = 0; i < safeCount; i++)
+			if (!field.isRevealed(safeCells[i] / cols, safeCells[i] % cols))
+				safeCells[kept++] = safeCells[i];
+		safeCount = kept;
+		return Arrays.copyOf(safeCells, safeCount);
+	}
+
+	/** Cells known to hold a mine, as row * cols + col */
+	public int[] mineCells() {
+		return Arrays.copyOf(mineCells, mineCount);
+	}
+
+	public boolean isSafe(int row, int col) {
+		return state[row * cols + col] == SAFE && !field.isRevealed(row, col);
+	}
+
+	public boolean isMine(int row, int col) {
+		return state[row * cols + col] == MINE;
+	}
+
+	/** Probability of a mine on (row, col) as of the last analyze() */
+	public double probability(int row, int col) {
+		int cell = row * cols + col;
+		if (state[cell] != UNKNOWN)
+			return state[cell] == MINE ? 1 : 0;
+		return stamp[cell] == frontierStamp ? probability[cell] : interiorProbability;
+	}
+
+	/** Whether the last probabilities are exact; false if a component was too big to enumerate */
+	public boolean isExact() {
+		return exact;
+	}
+
+	/**
+	 * Cell to open next, as row * cols + col: a safe one if any, else the
+	 * least likely to be a mine (a free corner on ties with the interior,
+	 * since it is the most likely to open an area). Call analyze() first.
+	 *
+	 * @return the cell, or -1 if every cell is known
+	 */
+	public int hint() {
+		int[] safe = safeCells();
+		if (safe.length > 0)
+			return safe[0];
+		int best = -1;
+		double lowest = 2;
+		for (int i = 0; i < frontierSize; i++) {
+			int cell = frontier[i];
+			if (state[cell] == UNKNOWN && probability[cell] < lowest) {
+				lowest = probability[cell];
+				best = cell;
+			}
+		}
+		int[] corners = { 0, cols - 1, (rows - 1) * cols, rows * cols - 1 };
+		for (int cell : corners)
+			if (state[cell] == UNKNOWN && stamp[cell] != frontierStamp && interiorProbability <= lowest)
+				return cell;
+		if (best < 0 || interiorProbability < lowest)
+			for (int cell = 0; cell < rows * cols; cell++)
+				if (state[cell] == UNKNOWN && stamp[cell] != frontierStamp)
+					return cell;
+		return best;
+	}
+
+	/**
+	 * Open (row, col), then open every cell the solver proves safe until
+	 * nothing is left to prove. The field is played on.
+	 *
+	 * @return true if the field was cleared without a guess
+	 */
+	public static boolean solve(MineField field, int row, int col) {
+		if (field.open(row, col) == MineField.MINE)
+			return false;
+		MineSolver solver = new MineSolver(field);
+		while (!field.isWon()) {
+			solver.analyze();
+			int left = field.cellsLeft();
+			for (int cell : solver.safeCells())
+				field.open(cell / field.cols, cell % field.cols);
+			if (field.cellsLeft() == left)
+				return false;
+		}
+		return true;
+	}
+
+	/** Solutions of one frontier component */
+	static final class Enumeration {
+		final int[] cells;
+		double[] counts; // [k]: solutions with k mines
+		double[][] mineCounts; // [k][i]: those with a mine on cells[i]
+		boolean exact;
+		double[] estimates; // if not exact: estimated probability of each cell
+		double expected; // if not exact: estimated mines
+
+		Enumeration(int[] cells) {
+			this.cells = cells;
+		}
+
+		/** Probabilities of the component alone, ignoring the mine count */
+		void estimate(double[] probability) {
+			double total = 0;
+			for (double c : counts)
+				total += c;
+			for (int i = 0; i < cells.length; i++) {
+				double mine = 0;
+				for (int k = 0; k < counts.length; k++)
+					mine += mineCounts[k][i];
+				probability[cells[i]] = mine / total;
+			}
+		}
+	}
+
+	/** Backtracking state: each group takes 0 to all of its cells as mines, pruned on every number around it */
+	private static final class Search {
+		final int[] target, placed, left; // per number: missing mines, mines placed, cells unassigned
+		final int[][] around; // per group: indexes of its numbers
+		final int[] size, mines; // per group: cells, mines in the current assignment
+		final double[][] choose; // choose[s][m] = C(s, m)
+		int nodes;
+
+		Search(int[][] around, int[] size, int numbers) {
+			this.around = around;
+			this.size = size;
+			target = new int[numbers];
+			placed = new int[numbers];
+			left = new int[numbers];
+			mines = new int[size.length];
+			choose = new double[9][];
+			for (int s = 0; s < choose.length; s++) {
+				choose[s] = new double[s + 1];
+				choose[s][0] = choose[s][s] = 1;
+				for (int m = 1; m < s; m++)
+					choose[s][m] = choose[s - 1][m - 1] + choose[s - 1][m];
+			}
+		}
+
+		/**
+		 * Add every completion of groups g.. to counts and groupMines, each
+		 * weighed by ways times its own placements
+		 *
+		 * @return false if the node budget ran out
+		 */
+		boolean run(int g, int k, double ways, double[] counts, double[][] groupMines) {
+			if (++nodes > NODE_BUDGET)
+				return false;
+			if (g == size.length) {
+				counts[k] += ways;
+				for (int i = 0; i < size.length; i++)
+					groupMines[k][i] += ways * mines[i];
+				return true;
+			}
+			int s = size[g];
+			for (int j : around[g])
+				left[j] -= s;
+			boolean completed = true;
+			for (int m = 0; m <= s && completed; m++) {
+				boolean ok = true;
+				for (int j : around[g])
+					ok &= placed[j] + m <= target[j] && placed[j] + m + left[j] >= target[j];
+				if (!ok)
+					continue;
+				for (int j : around[g])
+					placed[j] += m;
+				mines[g] = m;
+				completed = run(g + 1, k + m, ways * choose[s][m], counts, groupMines);
+				for (int j : around[g])
+					placed[j] -= m;
+			}
+			for (int j : around[g])
+				left[j] += s;
+			mines[g] = 0;
+			return completed;
+		}
+	}
+
+	/** Memo key: a component's cells, then its numbers with their missing mines */
+	private static final class Key {
+		final int[] data;
+		final int hash;
+
+		Key(int[] data) {
+			this.data = data;
+			this.hash = Arrays.hashCode(data);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && Arrays.equals(data, ((Key) o).data);
+		}
+	}
+
+	/**
+	 * Play expert boards (or rows, cols, mines, games given as arguments) by
+	 * hints only, and time analyze() on every click
+	 */
+	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int cols = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		int mines = args.length > 2 ? Integer.parseInt(args[2]) : 99;
+		int games = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+		SplittableRandom random = new SplittableRandom(1);
+		int won = 0, clicks = 0;
+		long totalTime = 0;
+		long[] times = new long[1024];
+		for (int game = 0; game < games; game++) {
+			MineField field = new MineField(rows, cols, mines, random.split());
+			MineSolver solver = new MineSolver(field);
+			int cell = rows / 2 * cols + cols / 2;
+			while (field.open(cell / cols, cell % cols) != MineField.MINE && !field.isWon()) {
+				long beginTime = System.nanoTime();
+				solver.analyze();
+				cell = solver.hint();
+				long elapsedTime = System.nanoTime() - beginTime;
+				if (game >= games / 10) { // the first tenth warms the JIT up
+					if (clicks == times.length)
+						times = Arrays.copyOf(times, clicks * 2);
+					times[clicks++] = elapsedTime;
+					totalTime += elapsedTime;
+				}
+			}
+			if (field.isWon())
+				won++;
+		}
+		System.out.printf("%dx%d, %d mines: won %d of %d games (%.1f%%)%n", rows, cols, mines, won, games,
+				100.0 * won / games);
+		Arrays.sort(times, 0, clicks);
+		System.out.printf("analyze + hint over %,d clicks: mean %.1f usec, median %.1f, 99%% %.1f, 99.9%% %.1f, max %.1f%n",
+				clicks, totalTime / 1e3 / clicks, times[clicks / 2] / 1e3, times[(int) (clicks * 0.99)] / 1e3,
+				times[(int) (clicks * 0.999)] / 1e3, times[clicks - 1] / 1e3);
+	}
+}
@@ -0,0 +1,94 @@
+package adapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency of opening one cell of an empty board, which floods the whole
+ * board: MineField.open against the old recursive openCellsAround /
+ * processCellsWaiting with an ArrayList queue (default sizes 30, 100, 500
+ * and 2000, or the sizes given as arguments).
+ */
+public class RevealBenchMark {
+
+	static final int ROUNDS = 10; // best of
+
+	public static void main(String[] args) {
+		int[] sizes = { 30, 100, 500, 2000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		MineField warmUp = new MineField(30, 30, new int[0]);
+		for (int i = 0; i < 2000; i++) { // let the JIT compile both versions first
+			warmUp.reset();
+			warmUp.open(15, 15);
+			warmUp.reset();
+			new Recursive(warmUp).openCellsAround(15, 15);
+		}
+		for (int size : sizes) {
+			MineField field = new MineField(size, size, new int[0]);
+			long best = Long.MAX_VALUE;
+			int opened = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				field.reset();
+				long beginTime = System.nanoTime();
+				opened = field.open(size / 2, size / 2);
+				best = Math.min(best, System.nanoTime() - beginTime);
+			}
+			report("MineField.open", size, opened, best);
+
+			best = Long.MAX_VALUE;
+			String failure = null;
+			for (int round = 0; round < ROUNDS && failure == null; round++) {
+				field.reset();
+				long beginTime = System.nanoTime();
+				try {
+					new Recursive(field).openCellsAround(size / 2, size / 2);
+					best = Math.min(best, System.nanoTime() - beginTime);
+				} catch (StackOverflowError e) {
+					failure = "StackOverflowError after " + (size * size - field.cellsLeft()) + " cells";
+				}
+			}
+			if (failure == null)
+				report("recursive ArrayList queue", size, size * size, best);
+			else
+				System.out.printf("%-26s %4dx%-4d: failed, %s%n", "recursive ArrayList queue", size, size, failure);
+		}
+	}
+
+	static void report(String name, int size, int opened, long elapsedTime) {
+		System.out.printf("%-26s %4dx%-4d: %,10d cells in %9.2f ms (%.1f ns/cell)%n", name, size, size, opened,
+				elapsedTime / 1e6, (double) elapsedTime / opened);
+	}
+
+	/** The flood fill MineSweeper used before, on a MineField instead of buttons */
+	static final class Recursive {
+		private final MineField field;
+		private final List<Point> listCells = new ArrayList<>();
+
+		Recursive(MineField field) {
+			this.field = field;
+		}
+
+		void openCellsAround(int row, int col) {
+			for (int i = -1; i <= 1; i++)
+				for (int j = -1; j <= 1; j++) {
+					int rowSelected = row + i, colSelected = col + j;
+					if (field.inside(rowSelected, colSelected) && !field.isRevealed(rowSelected, colSelected)
+							&& !field.isFlagged(rowSelected, colSelected)
+							&& field.reveal(rowSelected, colSelected) == 0)
+						listCells.add(new Point(rowSelected, colSelected));
+				}
+			processCellsWaiting();
+		}
+
+		void processCellsWaiting() {
+			if (listCells.size() > 0) {
+				Point point = listCells.remove(0);
+				openCellsAround(point.getRowSelected(), point.getColSelected());
+			}
+		}
+	}
+}
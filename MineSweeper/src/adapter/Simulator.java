@@ -0,0 +1,247 @@
+package adapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless Mine Sweeper: plays many seeded games on several threads with a
+ * MineSolver strategy and collects the win rate, games per second and a
+ * histogram of the time the strategy takes per move, so that millions of
+ * games fit in a few kilobytes. Game i is dealt from seed + i and opened in
+ * the middle, so a run gives the same results whatever the number of
+ * threads.
+ */
+public class Simulator {
+
+	static final int NO_GUESS_ATTEMPTS = 100000;
+
+	/** How the next cell is chosen */
+	public enum Strategy {
+		/** MineSolver.analyze() and hint(): rules, enumeration, then the least likely mine */
+		SOLVER,
+		/** Rules only (MineSolver.update()), then any covered cell not known to be a mine */
+		RULES
+	}
+
+	/** Latencies counted in buckets of a quarter of a power of two of nanoseconds */
+	public static final class Histogram {
+		static final int SUB = 4; // buckets per power of two
+		private final long[] buckets = new long[64 * SUB];
+		private long count, total, max;
+
+		void add(long nanos) {
+			long v = Math.max(nanos, 1);
+			int msb = 63 - Long.numberOfLeadingZeros(v);
+			buckets[msb < 2 ? (int) v : msb * SUB + (int) (v >>> (msb - 2) & (SUB - 1))]++;
+			count++;
+			total += nanos;
+			max = Math.max(max, nanos);
+		}
+
+		void addAll(Histogram other) {
+			for (int i = 0; i < buckets.length; i++)
+				buckets[i] += other.buckets[i];
+			count += other.count;
+			total += other.total;
+			max = Math.max(max, other.max);
+		}
+
+		/** Smallest latency above bucket index, in nanoseconds */
+		static long upper(int index) {
+			if (index < 2 * SUB)
+				return index + 1;
+			return (long) (SUB + index % SUB + 1) << (index / SUB - 2);
+		}
+
+		public long count() {
+			return count;
+		}
+
+		/** Mean latency, in microseconds */
+		public double mean() {
+			return count == 0 ? 0 : total / 1e3 / count;
+		}
+
+		/** Upper bound of the bucket holding quantile q in (0, 1], in microseconds */
+		public double percentile(double q) {
+			if (q >= 1)
+				return max / 1e3;
+			long rank = (long) Math.ceil(q * count), seen = 0;
+			for (int i = 0; i < buckets.length; i++)
+				if ((seen += buckets[i]) >= rank && seen > 0)
+					return upper(i) / 1e3;
+			return 0;
+		}
+
+		/** One line per non-empty bucket: its range, count and a bar */
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			long most = 0;
+			for (long n : buckets)
+				most = Math.max(most, n);
+			for (int i = 0; i < buckets.length; i++) {
+				if (buckets[i] == 0)
+					continue;
+				long from = i < 2 * SUB ? i : upper(i - 1);
+				sb.append(String.format(Locale.ROOT, "%10.2f - %10.2f us %,12d ", from / 1e3, upper(i) / 1e3,
+						buckets[i]));
+				for (long bar = 0; bar < 50 * buckets[i] / most; bar++)
+					sb.append('#');
+				sb.append(System.lineSeparator());
+			}
+			return sb.toString();
+		}
+	}
+
+	/** Outcome of the games of one difficulty */
+	public static final class Result {
+		public final Difficulty difficulty;
+		public final Strategy strategy;
+		public final boolean noGuess;
+		public final Histogram latency = new Histogram();
+		public int games, wins;
+		public long moves, guesses; // guesses: moves to a cell not proven safe
+		public long dealTime, wallTime; // nanoseconds
+
+		Result(Difficulty difficulty, Strategy strategy, boolean noGuess) {
+			this.difficulty = difficulty;
+			this.strategy = strategy;
+			this.noGuess = noGuess;
+		}
+
+		void addAll(Result other) {
+			games += other.games;
+			wins += other.wins;
+			moves += other.moves;
+			guesses += other.guesses;
+			dealTime += other.dealTime;
+			latency.addAll(other.latency);
+		}
+
+		public double winRate() {
+			return games == 0 ? 0 : (double) wins / games;
+		}
+
+		public double gamesPerSecond() {
+			return games * 1e9 / Math.max(wallTime, 1);
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT,
+					"%-12s %-6s %-8s %,10d games: %6.2f%% won, %5.2f guesses/game | %,10.0f games/s | "
+							+ "deal %,8.1f us/game | move mean %,7.1f us, p50 %,7.1f, p99 %,8.1f, p99.9 %,8.1f, max %,9.1f",
+					difficulty, strategy, noGuess ? "no-guess" : "random", games, 100 * winRate(),
+					(double) guesses / Math.max(games, 1), gamesPerSecond(), dealTime / 1e3 / Math.max(games, 1),
+					latency.mean(), latency.percentile(0.5), latency.percentile(0.99), latency.percentile(0.999),
+					latency.percentile(1));
+		}
+	}
+
+	/**
+	 * Play games games of difficulty on threads threads, game i dealt from
+	 * seed + i; no-guess boards if noGuess
+	 */
+	public static Result play(Difficulty difficulty, Strategy strategy, boolean noGuess, int games, int threads,
+			long seed) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long beginTime = System.nanoTime();
+			List<Future<Result>> parts = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				parts.add(executor.submit(() -> {
+					Result part = new Result(difficulty, strategy, noGuess);
+					for (int game = first; game < games; game += threads)
+						playGame(difficulty, strategy, noGuess, seed + game, part);
+					return part;
+				}));
+			}
+			Result result = new Result(difficulty, strategy, noGuess);
+			for (Future<Result> part : parts)
+				result.addAll(part.get());
+			result.wallTime = System.nanoTime() - beginTime;
+			return result;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Game failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Play one game and add its outcome to result */
+	static void playGame(Difficulty difficulty, Strategy strategy, boolean noGuess, long seed, Result result) {
+		int rows = difficulty.rows, cols = difficulty.cols;
+		int cell = rows / 2 * cols + cols / 2;
+		long beginTime = System.nanoTime();
+		MineField field = noGuess
+				? MineField.noGuess(rows, cols, difficulty.mines, new SplittableRandom(seed), rows / 2, cols / 2,
+						NO_GUESS_ATTEMPTS)
+				: new MineField(rows, cols, difficulty.mines, seed);
+		if (!field.isGenerated())
+			field.generate(cell);
+		result.dealTime += System.nanoTime() - beginTime;
+		MineSolver solver = new MineSolver(field);
+		SplittableRandom random = new SplittableRandom(~seed); // RULES guesses
+		result.games++;
+		while (field.open(cell / cols, cell % cols) != MineField.MINE && !field.isWon()) {
+			beginTime = System.nanoTime();
+			cell = next(strategy, field, solver, random);
+			result.latency.add(System.nanoTime() - beginTime);
+			result.moves++;
+			if (!solver.isSafe(cell / cols, cell % cols))
+				result.guesses++;
+		}
+		if (field.isWon())
+			result.wins++;
+	}
+
+	private static int next(Strategy strategy, MineField field, MineSolver solver, SplittableRandom random) {
+		if (strategy == Strategy.SOLVER) {
+			solver.analyze();
+			return solver.hint();
+		}
+		solver.update();
+		int[] safe = solver.safeCells();
+		if (safe.length > 0)
+			return safe[0];
+		int cell;
+		do
+			cell = random.nextInt(field.rows * field.cols);
+		while (field.isRevealed(cell / field.cols, cell % field.cols)
+				|| solver.isMine(cell / field.cols, cell % field.cols));
+		return cell;
+	}
+
+	/**
+	 * Arguments: [games per difficulty] [threads] [seed]; default 10000 games
+	 * on every processor from seed 1. Every difficulty is played with both
+	 * strategies, then expert no-guess boards (a tenth as many) to time their
+	 * generation.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+		play(Difficulty.EXPERT, Strategy.SOLVER, false, Math.max(games / 10, 1), threads, seed); // JIT warm-up
+		for (Strategy strategy : Strategy.values()) {
+			for (Difficulty difficulty : Difficulty.values()) {
+				Result result = play(difficulty, strategy, false, games, threads, seed);
+				System.out.println(result);
+				if (strategy == Strategy.SOLVER && difficulty == Difficulty.EXPERT) {
+					System.out.println("Expert SOLVER move latency:");
+					System.out.print(result.latency);
+				}
+			}
+		}
+		System.out.println(play(Difficulty.EXPERT, Strategy.SOLVER, true, Math.max(games / 10, 1), threads, seed));
+	}
+}
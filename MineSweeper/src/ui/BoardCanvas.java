@@ -0,0 +1,193 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.VolatileImage;
+
+import javax.swing.JComponent;
+
+import adapter.MineField;
+
+/**
+ * Paints a MineField on one component instead of a JButton per cell. The
+ * cell under the mouse is found by division, only the cells inside the clip
+ * are drawn, straight from the field's bitsets, and the cells changed by a
+ * move are repainted as one dirty rectangle. Each kind of cell (covered,
+ * flagged, blank, 1 to 8, exploded) is drawn once into a VolatileImage tile,
+ * so painting a cell is a single image copy whatever the board size.
+ */
+public class BoardCanvas extends JComponent {
+	private static final long serialVersionUID = 1L;
+
+	private static final Color BGCOLOR_NOT_REVEALED = Color.GREEN; // Background
+	private static final Color BGCOLOR_REVEALED_MINE = Color.RED; // Background of mine's cell
+	private static final Color BGCOLOR_REVEALED = Color.DARK_GRAY; // Background of selected cell
+	private static final Color FGCOLOR_REVEALED = Color.LIGHT_GRAY; // Foreground of selected cell
+	private static final Font FONT_NUMBERS = new Font("Verdana", Font.TYPE1_FONT, 20);
+	static final int GAP = 2; // pixels between cells
+	// Tiles 0 to 8 are revealed cells with that many mines around
+	private static final int COVERED = 9, FLAGGED = 10, EXPLODED = 11;
+
+	private final Image minesImage, flagsImage;
+	private final VolatileImage[] tiles = new VolatileImage[12];
+	private MineField field;
+	private int cellSize;
+	private int explodedCell = -1;
+	private int dirtyTop, dirtyLeft, dirtyBottom = -1, dirtyRight; // rows and cols; none if top > bottom
+
+	public BoardCanvas(Image minesImage, Image flagsImage) {
+		this.minesImage = minesImage;
+		this.flagsImage = flagsImage;
+		setOpaque(true);
+		setBackground(Color.LIGHT_GRAY);
+	}
+
+	/** Show field with cells of cellSize pixels, all repainted */
+	public void setField(MineField field, int cellSize) {
+		this.field = field;
+		if (cellSize != this.cellSize) {
+			this.cellSize = cellSize;
+			for (int i = 0; i < tiles.length; i++) {
+				if (tiles[i] != null)
+					tiles[i].flush();
+				tiles[i] = null;
+			}
+		}
+		explodedCell = -1;
+		dirtyBottom = -1;
+		setPreferredSize(new Dimension(field.cols * cellSize, field.rows * cellSize));
+		revalidate();
+		repaint();
+	}
+
+	/** Cell (row * cols + col) under pixel (x, y), or -1 if outside the board */
+	public int cellAt(int x, int y) {
+		if (field == null || x < 0 || y < 0)
+			return -1;
+		int row = y / cellSize, col = x / cellSize;
+		return row < field.rows && col < field.cols ? row * field.cols + col : -1;
+	}
+
+	/** Mark cell (row * cols + col) as changed; repaintDirty() repaints it */
+	public void cellChanged(int cell) {
+		int row = cell / field.cols, col = cell % field.cols;
+		if (dirtyTop > dirtyBottom) {
+			dirtyTop = dirtyBottom = row;
+			dirtyLeft = dirtyRight = col;
+			return;
+		}
+		dirtyTop = Math.min(dirtyTop, row);
+		dirtyBottom = Math.max(dirtyBottom, row);
+		dirtyLeft = Math.min(dirtyLeft, col);
+		dirtyRight = Math.max(dirtyRight, col);
+	}
+
+	/** Repaint the rectangle around the cells changed since the last call */
+	public void repaintDirty() {
+		if (dirtyTop > dirtyBottom)
+			return;
+		repaint(dirtyLeft * cellSize, dirtyTop * cellSize, (dirtyRight - dirtyLeft + 1) * cellSize,
+				(dirtyBottom - dirtyTop + 1) * cellSize);
+		dirtyBottom = -1;
+		dirtyTop = 0;
+	}
+
+	/** Show the mine at (row, col) that ended the game */
+	public void explode(int row, int col) {
+		explodedCell = row * field.cols + col;
+		cellChanged(explodedCell);
+		repaintDirty();
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Rectangle clip = g.getClipBounds();
+		if (clip == null)
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		g.setColor(getBackground());
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+		if (field == null)
+			return;
+		int firstRow = Math.max(clip.y / cellSize, 0);
+		int lastRow = Math.min((clip.y + clip.height - 1) / cellSize, field.rows - 1);
+		int firstCol = Math.max(clip.x / cellSize, 0);
+		int lastCol = Math.min((clip.x + clip.width - 1) / cellSize, field.cols - 1);
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		for (int row = firstRow; row <= lastRow; row++)
+			for (int col = firstCol; col <= lastCol; col++)
+				drawTile(g, gc, tileOf(row, col), col * cellSize, row * cellSize);
+	}
+
+	private int tileOf(int row, int col) {
+		if (row * field.cols + col == explodedCell)
+			return EXPLODED;
+		if (field.isRevealed(row, col))
+			return field.count(row, col);
+		return field.isFlagged(row, col) ? FLAGGED : COVERED;
+	}
+
+	/**
+	 * Copy tile to (x, y). A VolatileImage can lose its contents at any time
+	 * (display change, another full screen application), so it is validated
+	 * before every copy and drawn again when it was restored or recreated.
+	 */
+	private void drawTile(Graphics g, GraphicsConfiguration gc, int tile, int x, int y) {
+		if (gc == null) { // not on a screen: draw directly
+			paintTile(g, tile, x, y);
+			return;
+		}
+		VolatileImage image = tiles[tile];
+		do {
+			int status = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(gc);
+			if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+				if (image != null)
+					image.flush();
+				image = tiles[tile] = gc.createCompatibleVolatileImage(cellSize - GAP, cellSize - GAP);
+				status = VolatileImage.IMAGE_RESTORED;
+			}
+			if (status == VolatileImage.IMAGE_RESTORED) {
+				Graphics2D tileGraphics = image.createGraphics();
+				paintTile(tileGraphics, tile, 0, 0);
+				tileGraphics.dispose();
+			}
+			g.drawImage(image, x, y, null);
+		} while (image.contentsLost());
+	}
+
+	/** Draw one cell of kind tile with its top left corner at (x, y) */
+	private void paintTile(Graphics g, int tile, int x, int y) {
+		int size = cellSize - GAP;
+		if (tile == COVERED || tile == FLAGGED) {
+			g.setColor(BGCOLOR_NOT_REVEALED);
+			g.fill3DRect(x, y, size, size, true);
+		} else {
+			g.setColor(tile == EXPLODED ? BGCOLOR_REVEALED_MINE : BGCOLOR_REVEALED);
+			g.fillRect(x, y, size, size);
+		}
+		if (tile == FLAGGED || tile == EXPLODED) {
+			Image image = tile == FLAGGED ? flagsImage : minesImage;
+			int width = image.getWidth(null), height = image.getHeight(null);
+			double scale = Math.min(1, (size - 4.0) / Math.max(width, height)); // shrink to fit only
+			width = (int) (width * scale);
+			height = (int) (height * scale);
+			g.drawImage(image, x + (size - width) / 2, y + (size - height) / 2, width, height, null);
+		} else if (tile > 0 && tile <= 8) {
+			((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.setFont(FONT_NUMBERS);
+			g.setColor(FGCOLOR_REVEALED);
+			FontMetrics metrics = g.getFontMetrics();
+			String text = String.valueOf(tile);
+			g.drawString(text, x + (size - metrics.stringWidth(text)) / 2,
+					y + (size - metrics.getHeight()) / 2 + metrics.getAscent());
+		}
+	}
+}
@@ -4,25 +4,21 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Container;
-import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.Image;
-import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import javax.imageio.ImageIO;
-import javax.swing.ImageIcon;
-import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
@@ -35,9 +31,10 @@ import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
+import adapter.Difficulty;
 import adapter.HighScores;
+import adapter.MineField;
 import adapter.Player;
-import adapter.Point;
 
 /**
  * The Mine Sweeper Game.
@@ -52,7 +49,6 @@ public class MineSweeper extends JFrame {
 	private String currentLevel = BEGINNER; // Current level
 	private int numRows = 8, numCols = 8;
 	private int cellSize = 60; // Cell width and height, in pixels
-	private int canvasWidth, canvasHeigh; // Game board width/heigh
 	// Name-constants for the game properties
 	private static final int LEVEL_CHANGED = 0;
 	private static final int SCORE_CHANGED = 1;
@@ -61,35 +57,28 @@ public class MineSweeper extends JFrame {
 	private static final String BEGINNER = "Beginner";
 	private static final String INTERMEDIATE = "Intermediate";
 	private static final String EXPERT = "Expert";
-	// Name-constants for UI control (sizes, colors and fonts)
-	private static final Color BGCOLOR_NOT_REVEALED = Color.GREEN; // Background
-	private static final Color BGCOLOR_REVEALED_MINE = Color.RED; // Background of mine's cell
-	private static final Color BGCOLOR_REVEALED = Color.DARK_GRAY; // Background of selected cell
-	private static final Color FGCOLOR_REVEALED = Color.LIGHT_GRAY; // Foreground of selected cell
-	private static final Font FONT_NUMBERS = new Font("Verdana", Font.TYPE1_FONT, 20);
+	// Name-constants for UI control (sizes and fonts); the cell colors are in BoardCanvas
 	private static final Font FONT_TOP_PANEL = new Font("Comic Sans MS", Font.ROMAN_BASELINE, 15);
 	private static final Font FONT_STATUS_BAR = new Font("Comic Sans MS", Font.TRUETYPE_FONT, 13);
 	private static final Font FONT_MENU = new Font("Verdana", Font.CENTER_BASELINE, 13);
-	private List<Point> listCells = new ArrayList<>();
-	// Buttons for user interaction
-	private JButton[][] btnCells;
+	private static final int NO_GUESS_ATTEMPTS = 100000; // boards tried before giving up
+	// Board the cells are painted on, the only component that takes clicks
+	private BoardCanvas board;
 	// Number of mines in this game. Can vary to control the difficulty level.
 	private int numMines = 10;
-	private int cellsLeft, numFlags;
 	// Image of mine and flag
 	private Image minesImage, flagsImage;
-	// Location of mines. True if mine is present on this cell.
-	private boolean[][] mines;
-	// User can right-click to plant/remove a flag to mark a suspicious cell
-	private boolean[][] flags;
+	// Mines, flags and revealed cells; the board only shows it
+	private MineField field;
+	private final SplittableRandom random = new SplittableRandom();
 	// Other attribute and component
 	private Container container;
-	private JPanel gamePanel;
 	private Timer timer;
 	private int score;
 	private int second;
 	private JLabel cellsLb, minesLb, flagsLb, timeLb, levelLb, scoreLb;
 	private JMenuItem beginner, intermediate, expert;
+	private JCheckBoxMenuItem noGuess;
 
 	/**
 	 * Constructor to setup the game and the UI Components
@@ -111,6 +100,9 @@ public class MineSweeper extends JFrame {
 			notification(this, e.toString(), "Error", 0);
 			System.exit(1);
 		}
+		board = new BoardCanvas(minesImage, flagsImage);
+		board.addMouseListener(new CellMouseListener());
+		container.add(board, BorderLayout.CENTER);
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		setIconImage(icon);
 		setTitle("Minesweeper");
@@ -124,63 +116,22 @@ public class MineSweeper extends JFrame {
 	 */
 	public void initGame() {
 		// Initialize top panel
-		if (cellsLeft != 0 && cellsLeft != numRows * numCols - numMines)
+		if (field != null && field.cellsLeft() != 0 && field.cellsLeft() != numRows * numCols - numMines)
 			score = 0;
 		levelLb.setText("Difficulty: " + currentLevel);
 		scoreLb.setText("Your score: " + score);
 		// Menu bar, need to be located here
 		contextLevelMenu();
-		// Construct ROWS*COLS JButtons and add to the content-pane
-		gamePanel = new JPanel(new GridLayout(numRows, numCols, 2, 2), true);
-		CellMouseListener listener = new CellMouseListener();
-		btnCells = new JButton[numRows][numCols];
-		for (int row = 0; row < numRows; row++)
-			for (int col = 0; col < numCols; col++) {
-				btnCells[row][col] = new JButton();
-				btnCells[row][col].addMouseListener(listener);
-				gamePanel.add(btnCells[row][col]);
-			}
-		container.add(gamePanel, BorderLayout.CENTER);
-		// Set size, location for game window
-		canvasWidth = cellSize * numCols;
-		canvasHeigh = cellSize * numRows;
-		container.setPreferredSize(new Dimension(canvasWidth, canvasHeigh));
+		// Mines are placed on the first click, away from the clicked cell
+		field = new MineField(numRows, numCols, numMines, random.split());
+		// The board is sized to the level; set size, location for game window
+		board.setField(field, cellSize);
 		pack();
 		setLocationRelativeTo(null);
-		// Reset cells, mines and flags
-		mines = new boolean[numRows][numCols];
-		flags = new boolean[numRows][numCols];
-		for (int row = 0; row < numRows; row++)
-			for (int col = 0; col < numCols; col++) {
-				// Set all cells to un-revealed
-				btnCells[row][col].setEnabled(true);
-				btnCells[row][col].setFocusable(false);
-				btnCells[row][col].setForeground(BGCOLOR_REVEALED_MINE);
-				btnCells[row][col].setBackground(BGCOLOR_NOT_REVEALED);
-				btnCells[row][col].setFont(FONT_NUMBERS);
-				btnCells[row][col].setMargin(new Insets(0, 0, 0, 0));
-				btnCells[row][col].setIcon(null); // clear all the flags icon
-				btnCells[row][col].setText(""); // display blank
-				flags[row][col] = false; // clear all the flags
-				mines[row][col] = false; // clear all the mines
-			}
-		// Set the number of mines and the mines' location
-		cellsLeft = numRows * numCols - numMines;
-		numFlags = 0;
-		Random random = new Random();
-		int minesPlaced = 0;
-		while (minesPlaced < numMines) {
-			int row = random.nextInt(numRows);
-			int col = random.nextInt(numCols);
-			if (!mines[row][col]) {
-				mines[row][col] = true;
-				minesPlaced++;
-			}
-		}
 		// Initialize status bar
-		cellsLb.setText("Cells remaining: " + cellsLeft);
+		cellsLb.setText("Cells remaining: " + field.cellsLeft());
 		minesLb.setText("Mines: " + numMines);
-		flagsLb.setText("Flags: " + numFlags);
+		flagsLb.setText("Flags: " + field.flags());
 		timer.start();
 	}
 
@@ -190,22 +141,11 @@ public class MineSweeper extends JFrame {
 	public void reset() {
 		// Initialize status bar
 		score = 0;
-		numFlags = 0;
-		cellsLeft = numRows * numCols - numMines;
+		field.reset();
 		scoreLb.setText("Your score: " + score);
-		cellsLb.setText("Cells remaining: " + cellsLeft);
-		flagsLb.setText("Flags: " + numFlags);
-		for (int row = 0; row < numRows; row++)
-			for (int col = 0; col < numCols; col++) {
-				// Set all cells to un-revealed
-				btnCells[row][col].setEnabled(true);
-				btnCells[row][col].setFocusable(false);
-				btnCells[row][col].setForeground(BGCOLOR_REVEALED_MINE);
-				btnCells[row][col].setBackground(BGCOLOR_NOT_REVEALED);
-				btnCells[row][col].setIcon(null); // clear all the flags icon
-				btnCells[row][col].setText(""); // display blank
-				flags[row][col] = false; // clear all the flags
-			}
+		cellsLb.setText("Cells remaining: " + field.cellsLeft());
+		flagsLb.setText("Flags: " + field.flags());
+		board.setField(field, cellSize); // every cell is covered again
 	}
 
 	/**
@@ -234,6 +174,11 @@ public class MineSweeper extends JFrame {
 		mLevel.setMnemonic(KeyEvent.VK_L);
 		mOptions.add(mLevel);
 		mOptions.addSeparator();
+		noGuess = new JCheckBoxMenuItem("No Guessing");
+		noGuess.setToolTipText("Only deal boards that can be cleared without guessing");
+		noGuess.setFont(FONT_MENU);
+		mOptions.add(noGuess);
+		mOptions.addSeparator();
 		createMenuItem(mOptions, highScores, "High Scores", false, KeyEvent.VK_O);
 		// Add the item to the level menu
 		beginner = new JMenuItem();
@@ -307,23 +252,23 @@ public class MineSweeper extends JFrame {
 			case BEGINNER:
 				beginner.setText("• Beginner");
 				cellSize = 60;
-				numRows = 8;
-				numCols = 8;
-				numMines = 10;
+				numRows = Difficulty.BEGINNER.rows;
+				numCols = Difficulty.BEGINNER.cols;
+				numMines = Difficulty.BEGINNER.mines;
 				break;
 			case INTERMEDIATE:
 				intermediate.setText("• Intermediate");
 				cellSize = 40;
-				numRows = 16;
-				numCols = 16;
-				numMines = 40;
+				numRows = Difficulty.INTERMEDIATE.rows;
+				numCols = Difficulty.INTERMEDIATE.cols;
+				numMines = Difficulty.INTERMEDIATE.mines;
 				break;
 			case EXPERT:
 				expert.setText("• Expert");
 				cellSize = 40;
-				numRows = 16;
-				numCols = 30;
-				numMines = 99;
+				numRows = Difficulty.EXPERT.rows;
+				numCols = Difficulty.EXPERT.cols;
+				numMines = Difficulty.EXPERT.mines;
 				break;
 			default:
 				break;
@@ -419,10 +364,10 @@ public class MineSweeper extends JFrame {
 				scoreLb.setText("Your score: " + score);
 				break;
 			case CELLS_CHANGED:
-				cellsLb.setText("Cells remaining: " + cellsLeft);
+				cellsLb.setText("Cells remaining: " + field.cellsLeft());
 				break;
 			case FLAGS_CHANGED:
-				flagsLb.setText("Flags: " + numFlags);
+				flagsLb.setText("Flags: " + field.flags());
 				break;
 			default:
 				break;
@@ -430,73 +375,15 @@ public class MineSweeper extends JFrame {
 	}
 
 	/**
-	 * Return the number of mines near the selected location
-	 */
-	public int minesNear(int row, int col) {
-		int mines = 0;
-		// check mines in all directions
-		// can use for loops instead
-		mines += mineAt(row - 1, col - 1);
-		mines += mineAt(row - 1, col);
-		mines += mineAt(row - 1, col + 1);
-		mines += mineAt(row, col - 1);
-		mines += mineAt(row, col + 1);
-		mines += mineAt(row + 1, col - 1);
-		mines += mineAt(row + 1, col);
-		mines += mineAt(row + 1, col + 1);
-		return mines;
-	}
-
-	/**
-	 * Open all the mines near blank cell
-	 */
-	public void openCellsAround(int row, int col) {
-		int rowSelected, colSelected;
-		for (int i = -1; i <= 1; i++)
-			for (int j = -1; j <= 1; j++) {
-				rowSelected = row + i;
-				colSelected = col + j;
-				if (rowSelected >= 0 && rowSelected < numRows && colSelected >= 0 && colSelected < numCols)
-					if (btnCells[rowSelected][colSelected].isEnabled() && !flags[rowSelected][colSelected]) {
-						btnCells[rowSelected][colSelected].setBackground(BGCOLOR_REVEALED);
-						btnCells[rowSelected][colSelected].setForeground(FGCOLOR_REVEALED);
-						btnCells[rowSelected][colSelected].setEnabled(false);
-						cellsLeft--;
-						score++;
-						setTextChanged(CELLS_CHANGED);
-						setTextChanged(SCORE_CHANGED);
-						if (minesNear(rowSelected, colSelected) == 0)
-							listCells.add(new Point(rowSelected, colSelected));
-						else
-							btnCells[rowSelected][colSelected].setText(minesNear(rowSelected, colSelected) + "");
-					}
-			}
-		processCellsWaiting();
-	}
-
-	/**
-	 * process the list cells that each cell is zero-cell
-	 */
-	public void processCellsWaiting() {
-		int rowSelected, colSelected;
-		Point point;
-		if (listCells.size() > 0) {
-			point = listCells.get(0);
-			listCells.remove(0);
-			rowSelected = point.getRowSelected();
-			colSelected = point.getColSelected();
-			openCellsAround(rowSelected, colSelected);
-		}
-	}
-
-	/**
-	 * return 1 if there's a mine at row,col or 0 if there isn't
+	 * Open a cell, and the blank area around it, in the field. The revealed
+	 * cells are marked on the board as they open; the status bar and the
+	 * rectangle around them are refreshed once at the end.
 	 */
-	public int mineAt(int row, int col) {
-		if (row >= 0 && row < numRows && col >= 0 && col < numCols && mines[row][col])
-			return 1;
-		else
-			return 0;
+	public void openCell(int row, int col) {
+		score += field.open(row, col, board::cellChanged);
+		setTextChanged(CELLS_CHANGED);
+		setTextChanged(SCORE_CHANGED);
+		board.repaintDirty();
 	}
 
 	/**
@@ -565,68 +452,54 @@ public class MineSweeper extends JFrame {
 
 	/**
 	 * Handle event when mouse clicked
-	 * Determine the (row, col) of the JButton that triggered the event
+	 * Determine the (row, col) of the cell under the mouse
 	 */
 	private class CellMouseListener extends MouseAdapter {
 
 		@Override
 		public void mouseClicked(MouseEvent e) {
-			int rowSelected = -1;
-			int colSelected = -1;
-			// Get the source object that fired the Event
-			JButton source = (JButton) e.getSource();
-			// Scan all rows and columns and match with the source object
-			boolean found = false;
-			for (int row = 0; row < numRows && !found; row++)
-				for (int col = 0; col < numCols && !found; col++)
-					if (source == btnCells[row][col]) {
-						rowSelected = row;
-						colSelected = col;
-						found = true;
-					}
+			int cell = board.cellAt(e.getX(), e.getY());
+			if (cell < 0)
+				return;
+			int rowSelected = cell / numCols;
+			int colSelected = cell % numCols;
 			// Left-click to reveal a cell; Right-click to plant/remove the flag
-			if (e.getButton() == MouseEvent.BUTTON1 && !flags[rowSelected][colSelected]) {// Left-button clicked
-				if (mines[rowSelected][colSelected]) {
+			if (e.getButton() == MouseEvent.BUTTON1 && !field.isGenerated() && noGuess.isSelected()) {
+				try {
+					MineField dealt = MineField.noGuess(numRows, numCols, numMines, random, rowSelected, colSelected,
+							NO_GUESS_ATTEMPTS);
+					for (int row = 0; row < numRows; row++) // keep the flags planted so far
+						for (int col = 0; col < numCols; col++)
+							if (field.isFlagged(row, col))
+								dealt.toggleFlag(row, col);
+					field = dealt;
+					board.setField(field, cellSize);
+				} catch (IllegalStateException ex) {
+					notification(MineSweeper.this, ex.getMessage(), "No Guessing", 1);
+				}
+			}
+			if (e.getButton() == MouseEvent.BUTTON1 && !field.isFlagged(rowSelected, colSelected)) {// Left-button clicked
+				if (field.isMine(rowSelected, colSelected)) {
 					timer.stop();
-					btnCells[rowSelected][colSelected].setBackground(BGCOLOR_REVEALED_MINE);
-					btnCells[rowSelected][colSelected].setIcon(new ImageIcon(minesImage));
+					board.explode(rowSelected, colSelected);
 					notification(MineSweeper.this, "Game over!", "Oops", 0);
 					if (isHighScore(score))
 						enterName();
-					container.remove(gamePanel);
 					initGame();
 					container.validate();
 					container.repaint();
-				} else {
-					btnCells[rowSelected][colSelected].setBackground(BGCOLOR_REVEALED);
-					btnCells[rowSelected][colSelected].setForeground(FGCOLOR_REVEALED);
-					btnCells[rowSelected][colSelected].setEnabled(false);
-					cellsLeft--;
-					score++;
-					setTextChanged(CELLS_CHANGED);
-					setTextChanged(SCORE_CHANGED);
-					if (minesNear(rowSelected, colSelected) != 0)
-						btnCells[rowSelected][colSelected].setText(minesNear(rowSelected, colSelected) + "");
-					else
-						openCellsAround(rowSelected, colSelected);
-				}
+				} else
+					openCell(rowSelected, colSelected);
 			} else if (e.getButton() == MouseEvent.BUTTON3)
-				if (btnCells[rowSelected][colSelected].isEnabled())
-					if (!flags[rowSelected][colSelected]) {
-						numFlags++;
-						setTextChanged(FLAGS_CHANGED);
-						flags[rowSelected][colSelected] = true;
-						btnCells[rowSelected][colSelected].setIcon(new ImageIcon(flagsImage));
-					} else {
-						numFlags--;
-						setTextChanged(FLAGS_CHANGED);
-						flags[rowSelected][colSelected] = false;
-						btnCells[rowSelected][colSelected].setIcon(null);
-					}
-			if (cellsLeft == 0) {
+				if (!field.isRevealed(rowSelected, colSelected)) {
+					field.toggleFlag(rowSelected, colSelected);
+					board.cellChanged(cell);
+					board.repaintDirty();
+					setTextChanged(FLAGS_CHANGED);
+				}
+			if (field.isWon()) {
 				timer.stop();
 				notification(MineSweeper.this, "You win!", "Congratulation", 1);
-				container.remove(gamePanel);
 				initGame();
 				container.validate();
 				container.repaint();
@@ -644,7 +517,6 @@ public class MineSweeper extends JFrame {
 			String itemClicked = e.getActionCommand();
 			switch (itemClicked) {
 				case "New Game":
-					container.remove(gamePanel);
 					initGame();
 					break;
 				case "Reset Game":
@@ -657,17 +529,14 @@ public class MineSweeper extends JFrame {
 					new HSDialog();
 					break;
 				case BEGINNER:
-					container.remove(gamePanel);
 					currentLevel = BEGINNER;
 					initGame();
 					break;
 				case INTERMEDIATE:
-					container.remove(gamePanel);
 					currentLevel = INTERMEDIATE;
 					initGame();
 					break;
 				case EXPERT:
-					container.remove(gamePanel);
 					currentLevel = EXPERT;
 					initGame();
 					break;
@@ -1,9 +1,11 @@
 package sorts;
 
-import java.util.ArrayList;
-import java.util.Collections;
-
-/** Độ phức tạp thuật toán O(n) */
+/**
+ * Độ phức tạp thuật toán O(n) khi dữ liệu phân bố đều. Các bucket không dùng
+ * ArrayList<Integer> (mỗi phần tử bị boxing) mà là các đoạn liền nhau của một
+ * mảng int: đếm số phần tử mỗi bucket, cộng dồn để ra vị trí bắt đầu, rồi
+ * phân phối phần tử vào và sắp xếp từng đoạn.
+ */
 public class BucketSort {
 
 	public static void main(String[] args) {
@@ -16,12 +18,11 @@ public class BucketSort {
 
 	/**
 	 * Bucket sort
-	 * 
+	 *
 	 * @param array array to be sorted
 	 * @param bucketCount number of buckets
 	 * @return array sorted in ascending order
 	 */
-	@SuppressWarnings("unchecked")
 	public static int[] sort(int[] array, int bucketCount) {
 		if (bucketCount <= 0)
 			throw new IllegalArgumentException("Invalid bucket count");
@@ -36,26 +37,28 @@ public class BucketSort {
 			if (array[i] < low)
 				low = array[i];
 		}
-		double interval = ((double) (high - low + 1)) / bucketCount; //range of one bucket
+		double scale = bucketCount / ((double) high - low + 1); //buckets per unit, in double so high - low cannot overflow
 
-		ArrayList<Integer> buckets[] = new ArrayList[bucketCount];
-		for (int i = 0; i < bucketCount; i++) { //initialize buckets
-			buckets[i] = new ArrayList<>();
-		}
+		int[] start = new int[bucketCount + 1]; //bucket sizes, then where each bucket starts
+		for (int i = 0; i < array.length; i++)
+			start[bucket(array[i], low, scale, bucketCount)]++;
+		CountingSort.prefixSum(start);
 
-		for (int i = 0; i < array.length; i++) { //partition the input array
-			buckets[(int) ((array[i] - low) / interval)].add(array[i]);
-		}
+		int[] next = start.clone(); //partition the input array
+		int[] sorted = new int[array.length];
+		for (int i = 0; i < array.length; i++)
+			sorted[next[bucket(array[i], low, scale, bucketCount)]++] = array[i];
 
-		int pointer = 0;
-		for (int i = 0; i < buckets.length; i++) {
-			Collections.sort(buckets[i]); //mergeSort
-			for (int j = 0; j < buckets[i].size(); j++) { //merge the buckets
-				array[pointer] = buckets[i].get(j);
-				pointer++;
-			}
+		for (int i = 0; i < bucketCount; i++) { //sort every bucket in place
+			if (start[i + 1] - start[i] > 1)
+				QuickSort.dualPivotSort(sorted, start[i], start[i + 1] - 1);
 		}
+		System.arraycopy(sorted, 0, array, 0, array.length);
 		return array;
 	}
 
+	static int bucket(int value, int low, double scale, int bucketCount) {
+		return Math.min(bucketCount - 1, (int) (((double) value - low) * scale));
+	}
+
 }
@@ -1,48 +1,156 @@
 package sorts;
 
-/** Độ phức tạp thuật toán O(n2) */
+import java.util.stream.IntStream;
+
+/**
+ * Độ phức tạp thuật toán O(n + k), k là khoảng giá trị (max - min + 1).
+ * Khoảng giá trị được tìm tự động; counting sort chỉ được dùng khi k không quá
+ * lớn so với n (dữ liệu dày), còn lại chuyển sang RaddixSort. Với mảng lớn, mỗi
+ * luồng đếm một phần mảng rồi cộng các bảng đếm lại.
+ */
 public class CountingSort {
 
+	// Counting sort is used when the range is at most this many times n
+	static final int DENSITY = 2;
+	static final int MAX_RANGE = 1 << 22;
+	// From this size the histogram is counted in parallel
+	static final int PARALLEL_THRESHOLD = RaddixSort.PARALLEL_THRESHOLD;
+
 	public static void main(String[] args) {
 		int a[] = { 'g', 'e', 'e', 'k', 's', 'f', 'o', 'r', 'g', 'e', 'e', 'k', 's' };
 		sort(a);
 		for (int i = 0; i < a.length; ++i) {
 			System.out.print(a[i] + " ");
 		}
+		System.out.println();
+		// Sort records by key; records with the same key keep their order
+		int[] ages = { 31, 25, 31, 19, 25 };
+		String[] names = { "An", "Binh", "Chi", "Dung", "Giang" };
+		sort(ages, names);
+		for (int i = 0; i < ages.length; i++) {
+			System.out.print(names[i] + "(" + ages[i] + ") ");
+		}
 	}
 
-	static void sort(int[] a) {
-		int n = a.length;
+	public static void sort(int[] a) {
+		sort(a, 0, a.length);
+	}
+
+	/** Sort the range a[from..to) */
+	public static void sort(int[] a, int from, int to) {
+		SortAlgorithm.rangeCheck(a.length, from, to);
+		if (to - from < 2)
+			return;
+		int min = a[from], max = a[from];
+		for (int i = from + 1; i < to; i++) {
+			if (a[i] < min)
+				min = a[i];
+			else if (a[i] > max)
+				max = a[i];
+		}
+		long range = (long) max - min + 1;
+		if (isDense(range, to - from))
+			countingSort(a, from, to, min, (int) range);
+		else
+			RaddixSort.sort(a, from, to);
+	}
 
-		// The output character array that will have sorted a
-		int[] output = new int[n];
-		// Create a count array to store count of inidividul
-		// characters and initialize count array as 0
-		int[] count = new int[256];
-		for (int i = 0; i < 256; i++) {
-			count[i] = 0;
+	/**
+	 * Stable sort of records by key: keys[i] is the key of values[i], and both
+	 * arrays are reordered together.
+	 */
+	public static <T> void sort(int[] keys, T[] values) {
+		int n = keys.length;
+		if (values.length != n)
+			throw new IllegalArgumentException("keys and values differ in length");
+		if (n < 2)
+			return;
+		int min = keys[0], max = keys[0];
+		for (int i = 1; i < n; i++) {
+			if (keys[i] < min)
+				min = keys[i];
+			else if (keys[i] > max)
+				max = keys[i];
 		}
-		// Store count of each character
+		long range = (long) max - min + 1;
+		if (!isDense(range, n)) {
+			RaddixSort.sort(keys, values); // LSD radix sort is stable too
+			return;
+		}
+		int[] offset = histogram(keys, 0, n, min, (int) range);
+		prefixSum(offset);
+		int[] sortedKeys = new int[n];
+		Object[] sortedValues = new Object[n];
 		for (int i = 0; i < n; i++) {
-			++count[a[i]];
+			int k = offset[keys[i] - min]++;
+			sortedKeys[k] = keys[i];
+			sortedValues[k] = values[i];
 		}
+		System.arraycopy(sortedKeys, 0, keys, 0, n);
+		System.arraycopy(sortedValues, 0, values, 0, n);
+	}
+
+	static boolean isDense(long range, int n) {
+		return range <= MAX_RANGE && range <= (long) n * DENSITY;
+	}
 
-		// Change count[i] so that count[i] now contains actual
-		// position of this character in output array
-		for (int i = 1; i <= 255; i++) {
-			count[i] += count[i - 1];
+	/** Counting sort of a[from..to) whose values lie in [min, min + range) */
+	static void countingSort(int[] a, int from, int to, int min, int range) {
+		int[] offset = histogram(a, from, to, min, range);
+		prefixSum(offset);
+		// offset[v]..offset[v + 1] is now the block of value v + min
+		int n = to - from;
+		if (n < PARALLEL_THRESHOLD) {
+			for (int v = 0; v < range; v++)
+				for (int k = offset[v]; k < offset[v + 1]; k++)
+					a[from + k] = v + min;
+			return;
 		}
+		int chunks = Math.min(Runtime.getRuntime().availableProcessors() * 4, range);
+		int chunkSize = (range + chunks - 1) / chunks;
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			for (int v = chunk * chunkSize; v < Math.min(range, (chunk + 1) * chunkSize); v++)
+				for (int k = offset[v]; k < offset[v + 1]; k++)
+					a[from + k] = v + min;
+		});
+	}
 
-		// Build the output character array
-		for (int i = 0; i < n; i++) {
-			output[count[a[i]] - 1] = a[i];
-			--count[a[i]];
+	/**
+	 * Count of every value of a[from..to) minus min, in an array with one
+	 * spare slot at the end for prefixSum. Large inputs are split into chunks
+	 * counted in parallel, each into its own histogram, which are then summed.
+	 */
+	static int[] histogram(int[] a, int from, int to, int min, int range) {
+		int n = to - from;
+		// A chunk should hold at least as many elements as it has counters
+		int chunks = Math.min(Runtime.getRuntime().availableProcessors(),
+				n / Math.max(range, PARALLEL_THRESHOLD / 4));
+		if (n < PARALLEL_THRESHOLD || chunks < 2) {
+			int[] count = new int[range + 1];
+			for (int i = from; i < to; i++)
+				count[a[i] - min]++;
+			return count;
 		}
+		int chunkSize = (n + chunks - 1) / chunks;
+		return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+			int[] count = new int[range + 1];
+			for (int i = from + chunk * chunkSize; i < Math.min(to, from + (chunk + 1) * chunkSize); i++)
+				count[a[i] - min]++;
+			return count;
+		}).reduce((x, y) -> {
+			for (int v = 0; v < range; v++)
+				x[v] += y[v];
+			return x;
+		}).get();
+	}
 
-		// Copy the output array to a, so that arr now
-		// contains sorted characters
-		for (int i = 0; i < n; ++i) {
-			a[i] = output[i];
+	/** Turn counts into starting positions: count[v] becomes the sum of count[0..v) */
+	static void prefixSum(int[] count) {
+		int sum = 0;
+		for (int v = 0; v < count.length; v++) {
+			int c = count[v];
+			count[v] = sum;
+			sum += c;
 		}
 	}
 }
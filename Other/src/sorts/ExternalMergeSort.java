@@ -0,0 +1,408 @@
+package sorts;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sắp xếp ngoài (external merge sort) cho file số nguyên lớn hơn bộ nhớ. File
+ * gồm các int 4 byte big-endian, cùng định dạng với DataOutputStream.
+ *
+ * Phase 1 đọc từng đoạn runSize số, sắp xếp song song bằng ParallelMergeSort
+ * rồi ghi ra một file tạm (run). Phase 2 trộn tối đa fanIn run một lúc bằng
+ * loser tree; nếu có nhiều run hơn thì trộn thành nhiều lượt. Mọi thao tác
+ * đọc/ghi đi qua FileChannel với direct ByteBuffer, mỗi run đang trộn có một
+ * buffer đọc trước (read-ahead) riêng.
+ */
+public class ExternalMergeSort {
+
+	public static final int DEFAULT_RUN_SIZE = 1 << 24; // ints per run (64 MB)
+	public static final int DEFAULT_FAN_IN = 64;
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 18; // bytes per reader/writer
+
+	private final File tempDirectory;
+	private final int runSize, fanIn, bufferSize;
+	private final ForkJoinPool pool;
+
+	/** Time and disk traffic of one phase */
+	public static class PhaseStats {
+		final String name;
+		int runs; // runs written by this phase
+		long elapsedTime, bytesRead, bytesWritten, reads, writes;
+
+		PhaseStats(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			double seconds = Math.max(elapsedTime, 1) / 1e9;
+			return String.format("%-16s %6.2f s, %4d runs, read %9.1f MB in %7d calls (%7.1f MB/s), "
+					+ "written %9.1f MB in %7d calls (%7.1f MB/s)", name, seconds, runs, bytesRead / 1e6, reads,
+					bytesRead / 1e6 / seconds, bytesWritten / 1e6, writes, bytesWritten / 1e6 / seconds);
+		}
+	}
+
+	/**
+	 * @param tempDirectory where the runs are spilled, null for the system default
+	 * @param runSize       ints sorted in memory per run
+	 * @param fanIn         runs merged at once
+	 * @param bufferSize    bytes of the read-ahead buffer of each run, and of the
+	 *                      output buffer
+	 */
+	public ExternalMergeSort(File tempDirectory, int runSize, int fanIn, int bufferSize, ForkJoinPool pool) {
+		if (runSize < 1 || fanIn < 2 || bufferSize < 4)
+			throw new IllegalArgumentException("Invalid run size, fan-in or buffer size");
+		this.tempDirectory = tempDirectory;
+		this.runSize = runSize;
+		this.fanIn = fanIn;
+		this.bufferSize = bufferSize & ~3; // whole ints
+		this.pool = pool;
+	}
+
+	public ExternalMergeSort() {
+		this(null, DEFAULT_RUN_SIZE, DEFAULT_FAN_IN, DEFAULT_BUFFER_SIZE, ForkJoinPool.commonPool());
+	}
+
+	public static void main(String[] args) throws IOException {
+		long count = args.length > 0 ? (long) Double.parseDouble(args[0]) : 1 << 26;
+		int runSize = args.length > 1 ? (int) Double.parseDouble(args[1]) : 1 << 22;
+		int fanIn = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+		File input = File.createTempFile("unsorted-", ".bin");
+		File output = File.createTempFile("sorted-", ".bin");
+		try {
+			PhaseStats generate = new PhaseStats("generate");
+			long beginTime = System.nanoTime(), sum = 0;
+			Random random = new Random(42);
+			try (RunWriter out = new RunWriter(input, 1 << 20, generate)) {
+				for (long i = 0; i < count; i++) {
+					int value = random.nextInt();
+					sum += value;
+					out.write(value);
+				}
+			}
+			generate.elapsedTime = System.nanoTime() - beginTime;
+			System.out.println(generate);
+
+			ExternalMergeSort sorter = new ExternalMergeSort(null, runSize, fanIn, DEFAULT_BUFFER_SIZE,
+					ForkJoinPool.commonPool());
+			beginTime = System.nanoTime();
+			for (PhaseStats phase : sorter.sort(input, output))
+				System.out.println(phase);
+			System.out.printf("Sorted %,d ints (%.1f MB) in %.2f s%n", count, count * 4 / 1e6,
+					(System.nanoTime() - beginTime) / 1e9);
+
+			try (RunReader in = new RunReader(output, 1 << 20, new PhaseStats("verify"))) {
+				long n = 0;
+				int previous = Integer.MIN_VALUE;
+				while (in.next()) {
+					if (in.current < previous)
+						throw new IllegalStateException("Not sorted at " + n);
+					previous = in.current;
+					sum -= in.current;
+					n++;
+				}
+				if (n != count || sum != 0)
+					throw new IllegalStateException("Output is not a permutation of the input");
+			}
+		} finally {
+			input.delete();
+			output.delete();
+		}
+	}
+
+	/**
+	 * Sort the ints of input into output (which is overwritten).
+	 *
+	 * @return statistics of every phase, in order
+	 */
+	public List<PhaseStats> sort(File input, File output) throws IOException {
+		List<PhaseStats> stats = new ArrayList<>();
+		List<File> runs = new ArrayList<>();
+		List<File> merged = new ArrayList<>(); // output of the pass in progress
+		try {
+			PhaseStats phase = new PhaseStats("run generation");
+			long beginTime = System.nanoTime();
+			createRuns(input, runs, phase);
+			phase.elapsedTime = System.nanoTime() - beginTime;
+			stats.add(phase);
+
+			for (int pass = 1; runs.size() > fanIn; pass++) {
+				phase = new PhaseStats("merge pass " + pass);
+				beginTime = System.nanoTime();
+				for (int i = 0; i < runs.size(); i += fanIn) {
+					List<File> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+					if (group.size() == 1) {
+						merged.add(group.get(0)); // nothing to merge it with
+						continue;
+					}
+					File run = newRunFile();
+					merged.add(run);
+					merge(group, run, phase);
+					phase.runs++;
+				}
+				runs = merged;
+				merged = new ArrayList<>();
+				phase.elapsedTime = System.nanoTime() - beginTime;
+				stats.add(phase);
+			}
+
+			phase = new PhaseStats("final merge");
+			beginTime = System.nanoTime();
+			merge(runs, output, phase);
+			phase.elapsedTime = System.nanoTime() - beginTime;
+			stats.add(phase);
+		} finally {
+			// On failure this removes every run file left, including a half written one
+			for (File run : runs)
+				run.delete();
+			for (File run : merged)
+				run.delete();
+		}
+		return stats;
+	}
+
+	// Phase 1: sort chunks of runSize ints in memory and spill each to a run file
+	private void createRuns(File input, List<File> runs, PhaseStats phase) throws IOException {
+		try (FileChannel in = FileChannel.open(input.toPath(), StandardOpenOption.READ)) {
+			if (in.size() % 4 != 0)
+				throw new IOException(input + " is not a whole number of ints");
+			long remaining = in.size() / 4;
+			int length = (int) Math.min(runSize, Math.max(remaining, 1));
+			int[] run = new int[length], buffer = new int[length];
+			ByteBuffer bytes = ByteBuffer.allocateDirect(bufferSize);
+			while (remaining > 0) {
+				int n = (int) Math.min(length, remaining);
+				readFully(in, bytes, run, n, phase);
+				ParallelMergeSort.sort(run, buffer, n, pool);
+				File file = newRunFile();
+				runs.add(file);
+				try (RunWriter out = new RunWriter(file, bufferSize, phase)) {
+					out.write(run, n);
+				}
+				phase.runs++;
+				remaining -= n;
+			}
+		}
+	}
+
+	// Read the next n ints of the channel into dest
+	private static void readFully(FileChannel in, ByteBuffer bytes, int[] dest, int n, PhaseStats phase)
+			throws IOException {
+		for (int done = 0; done < n;) {
+			bytes.clear();
+			bytes.limit((int) Math.min(bytes.capacity(), (n - done) * 4L));
+			while (bytes.hasRemaining()) {
+				int read = in.read(bytes);
+				if (read < 0)
+					throw new EOFException();
+				phase.reads++;
+				phase.bytesRead += read;
+			}
+			bytes.flip();
+			int count = bytes.remaining() / 4;
+			bytes.asIntBuffer().get(dest, done, count);
+			done += count;
+		}
+	}
+
+	// Phase 2: k-way merge of the runs into output, then delete the runs
+	private void merge(List<File> runs, File output, PhaseStats phase) throws IOException {
+		RunReader[] readers = new RunReader[runs.size()];
+		try {
+			for (int i = 0; i < readers.length; i++)
+				readers[i] = new RunReader(runs.get(i), bufferSize, phase);
+			try (RunWriter out = new RunWriter(output, bufferSize, phase)) {
+				if (readers.length > 0) {
+					LoserTree tree = new LoserTree(readers);
+					while (tree.hasNext())
+						out.write(tree.next());
+				}
+			}
+		} finally {
+			for (RunReader reader : readers)
+				if (reader != null)
+					reader.close();
+		}
+		for (File run : runs)
+			run.delete();
+	}
+
+	private File newRunFile() throws IOException {
+		File file = File.createTempFile("run-", ".bin", tempDirectory);
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Tournament tree over k sorted readers. Each internal node keeps the loser
+	 * of the match played there and tree[0] the overall winner, so taking the
+	 * smallest value costs one comparison per level (log k) on the path from
+	 * the winner's leaf to the root.
+	 */
+	static class LoserTree {
+		private final RunReader[] readers;
+		private final int[] tree;
+		private final boolean[] exhausted;
+
+		LoserTree(RunReader[] readers) throws IOException {
+			int k = readers.length;
+			this.readers = readers;
+			tree = new int[k];
+			exhausted = new boolean[k];
+			for (int i = 0; i < k; i++)
+				exhausted[i] = !readers[i].next();
+			tree[0] = build(1);
+		}
+
+		// Play the matches of the subtree at node; leaves are nodes k..2k-1
+		private int build(int node) {
+			if (node >= tree.length)
+				return node - tree.length;
+			int left = build(2 * node), right = build(2 * node + 1);
+			if (beats(left, right)) {
+				tree[node] = right;
+				return left;
+			}
+			tree[node] = left;
+			return right;
+		}
+
+		// Exhausted readers lose to everything
+		private boolean beats(int x, int y) {
+			if (exhausted[x])
+				return false;
+			if (exhausted[y])
+				return true;
+			return readers[x].current <= readers[y].current;
+		}
+
+		boolean hasNext() {
+			return !exhausted[tree[0]];
+		}
+
+		/** Take the smallest value and replay the winner's path */
+		int next() throws IOException {
+			int winner = tree[0];
+			int value = readers[winner].current;
+			exhausted[winner] = !readers[winner].next();
+			for (int node = (winner + tree.length) >> 1; node > 0; node >>= 1) {
+				if (beats(tree[node], winner)) {
+					int loser = winner;
+					winner = tree[node];
+					tree[node] = loser;
+				}
+			}
+			tree[0] = winner;
+			return value;
+		}
+	}
+
+	/** Sequential int reader that refills a block of bufferSize bytes at a time */
+	static class RunReader implements Closeable {
+		private final FileChannel channel;
+		private final ByteBuffer bytes;
+		private final int[] block;
+		private final PhaseStats phase;
+		private int position, limit;
+		int current;
+
+		RunReader(File file, int bufferSize, PhaseStats phase) throws IOException {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			bytes = ByteBuffer.allocateDirect(bufferSize);
+			block = new int[bufferSize / 4];
+			this.phase = phase;
+		}
+
+		/** Move to the next value; false at the end of the file */
+		boolean next() throws IOException {
+			if (position == limit && !fill())
+				return false;
+			current = block[position++];
+			return true;
+		}
+
+		private boolean fill() throws IOException {
+			bytes.clear();
+			int read;
+			while (bytes.hasRemaining() && (read = channel.read(bytes)) >= 0) {
+				phase.reads++;
+				phase.bytesRead += read;
+			}
+			bytes.flip();
+			position = 0;
+			limit = bytes.remaining() / 4;
+			bytes.asIntBuffer().get(block, 0, limit);
+			return limit > 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	/** Buffered int writer; the file is truncated when opened */
+	static class RunWriter implements Closeable {
+		private final FileChannel channel;
+		private final ByteBuffer bytes;
+		private final int[] block;
+		private final PhaseStats phase;
+		private int size;
+
+		RunWriter(File file, int bufferSize, PhaseStats phase) throws IOException {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			bytes = ByteBuffer.allocateDirect(bufferSize);
+			block = new int[bufferSize / 4];
+			this.phase = phase;
+		}
+
+		void write(int value) throws IOException {
+			block[size++] = value;
+			if (size == block.length)
+				flush();
+		}
+
+		/** Write a[0..n) */
+		void write(int[] a, int n) throws IOException {
+			for (int done = 0; done < n;) {
+				int count = Math.min(n - done, block.length - size);
+				System.arraycopy(a, done, block, size, count);
+				size += count;
+				done += count;
+				if (size == block.length)
+					flush();
+			}
+		}
+
+		private void flush() throws IOException {
+			bytes.clear();
+			bytes.asIntBuffer().put(block, 0, size);
+			bytes.limit(size * 4);
+			while (bytes.hasRemaining()) {
+				phase.bytesWritten += channel.write(bytes);
+				phase.writes++;
+			}
+			size = 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package sorts;
+
+import java.util.Comparator;
+
+/**
+ * Comparator-based versions of the algorithms in this package, for object
+ * arrays. Every method sorts the range a[from..to).
+ */
+public class GenericSorts {
+
+	static <T> void bubbleSort(T[] a, int from, int to, Comparator<? super T> c) {
+		for (int i = from; i < to; i++) {
+			boolean swapped = false;
+			for (int j = to - 1; j > i; j--) {
+				if (c.compare(a[j], a[j - 1]) < 0) {
+					swap(a, j, j - 1);
+					swapped = true;
+				}
+			}
+			if (!swapped)
+				break;
+		}
+	}
+
+	static <T> void combSort(T[] a, int from, int to, Comparator<? super T> c) {
+		int gap = to - from;
+		boolean swapped = true;
+		while (gap > 1 || swapped) {
+			gap = Math.max(1, (int) (gap / 1.3f));
+			swapped = false;
+			for (int i = from; i + gap < to; i++) {
+				if (c.compare(a[i], a[i + gap]) > 0) {
+					swap(a, i, i + gap);
+					swapped = true;
+				}
+			}
+		}
+	}
+
+	static <T> void heapSort(T[] a, int from, int to, Comparator<? super T> c) {
+		int n = to - from;
+		for (int i = n / 2 - 1; i >= 0; i--)
+			siftDown(a, from, n, i, c);
+		for (int i = n - 1; i > 0; i--) {
+			swap(a, from, from + i);
+			siftDown(a, from, i, 0, c);
+		}
+	}
+
+	private static <T> void siftDown(T[] a, int from, int n, int i, Comparator<? super T> c) {
+		T value = a[from + i];
+		int child;
+		while ((child = 2 * i + 1) < n) {
+			if (child + 1 < n && c.compare(a[from + child + 1], a[from + child]) > 0)
+				child++;
+			if (c.compare(value, a[from + child]) >= 0)
+				break;
+			a[from + i] = a[from + child];
+			i = child;
+		}
+		a[from + i] = value;
+	}
+
+	static <T> void insertionSort(T[] a, int from, int to, Comparator<? super T> c) {
+		for (int i = from + 1; i < to; i++) {
+			T key = a[i];
+			int j = i - 1;
+			while (j >= from && c.compare(a[j], key) > 0) {
+				a[j + 1] = a[j];
+				j--;
+			}
+			a[j + 1] = key;
+		}
+	}
+
+	static <T> void interchangeSort(T[] a, int from, int to, Comparator<? super T> c) {
+		for (int i = from; i < to - 1; i++)
+			for (int j = i + 1; j < to; j++)
+				if (c.compare(a[i], a[j]) > 0)
+					swap(a, i, j);
+	}
+
+	/** Stable merge sort using one scratch buffer */
+	static <T> void mergeSort(T[] a, int from, int to, Comparator<? super T> c) {
+		if (to - from < 2)
+			return;
+		@SuppressWarnings("unchecked")
+		T[] buffer = (T[]) new Object[to - from];
+		mergeSort(a, buffer, from, from, to, c);
+	}
+
+	// buffer[i - base] is the scratch slot for a[i]
+	private static <T> void mergeSort(T[] a, T[] buffer, int base, int from, int to, Comparator<? super T> c) {
+		if (to - from <= QuickSort.INSERTION_SORT_THRESHOLD) {
+			insertionSort(a, from, to, c);
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(a, buffer, base, from, mid, c);
+		mergeSort(a, buffer, base, mid, to, c);
+		if (c.compare(a[mid - 1], a[mid]) <= 0)
+			return; // already in order
+		// Only the left run needs to be copied out
+		System.arraycopy(a, from, buffer, from - base, mid - from);
+		int i = from - base, end1 = mid - base, j = mid, k = from;
+		while (i < end1 && j < to)
+			a[k++] = (c.compare(buffer[i], a[j]) <= 0) ? buffer[i++] : a[j++];
+		System.arraycopy(buffer, i, a, k, end1 - i);
+	}
+
+	static <T> void quickSort(T[] a, int from, int to, Comparator<? super T> c) {
+		while (to - from > QuickSort.INSERTION_SORT_THRESHOLD) {
+			int mid = (from + to) >>> 1;
+			T pivot = a[medianOfThree(a, from, mid, to - 1, c)];
+			int i = from, j = to - 1;
+			do {
+				while (c.compare(a[i], pivot) < 0)
+					i++;
+				while (c.compare(a[j], pivot) > 0)
+					j--;
+				if (i <= j)
+					swap(a, i++, j--);
+			} while (i <= j);
+			// Recurse into the smaller part, loop on the larger one
+			if (j - from < to - i) {
+				quickSort(a, from, j + 1, c);
+				from = i;
+			} else {
+				quickSort(a, i, to, c);
+				to = j + 1;
+			}
+		}
+		insertionSort(a, from, to, c);
+	}
+
+	static <T> int medianOfThree(T[] a, int i, int j, int k, Comparator<? super T> c) {
+		if (c.compare(a[i], a[j]) < 0)
+			return c.compare(a[j], a[k]) < 0 ? j : c.compare(a[i], a[k]) < 0 ? k : i;
+		return c.compare(a[k], a[j]) < 0 ? j : c.compare(a[k], a[i]) < 0 ? k : i;
+	}
+
+	static <T> void selectionSort(T[] a, int from, int to, Comparator<? super T> c) {
+		for (int i = from; i < to; i++) {
+			int minIdx = i;
+			for (int j = i + 1; j < to; j++)
+				if (c.compare(a[minIdx], a[j]) > 0)
+					minIdx = j;
+			if (minIdx != i)
+				swap(a, i, minIdx);
+		}
+	}
+
+	static <T> void shellSort(T[] a, int from, int to, Comparator<? super T> c) {
+		int n = to - from;
+		for (int gap = n / 2; gap > 0; gap /= 2) {
+			for (int i = from + gap; i < to; i++) {
+				T temp = a[i];
+				int j;
+				for (j = i; j >= from + gap && c.compare(a[j - gap], temp) > 0; j -= gap)
+					a[j] = a[j - gap];
+				a[j] = temp;
+			}
+		}
+	}
+
+	static void swap(Object[] a, int x, int y) {
+		Object temp = a[x];
+		a[x] = a[y];
+		a[y] = temp;
+	}
+}
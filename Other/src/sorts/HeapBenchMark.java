@@ -0,0 +1,84 @@
+package sorts;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * IntHeap (2-, 4- and 8-ary) against PriorityQueue<Integer> on n inserts
+ * followed by n polls, and the binary HeapSort against the d-ary one
+ * (default 10M elements, or the size given as argument).
+ */
+public class HeapBenchMark {
+
+	static final int ROUNDS = 3; // best of
+	static final int[] ARITIES = { 2, 4, 8 };
+
+	static long sink; // keep results alive so the JIT cannot drop the work
+
+	public static void main(String[] args) {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+		int[] values = new Random(42).ints(n).toArray();
+
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long beginTime = System.nanoTime();
+			PriorityQueue<Integer> queue = new PriorityQueue<>(n);
+			for (int v : values)
+				queue.add(v);
+			while (!queue.isEmpty())
+				sink += queue.poll();
+			best = Math.min(best, System.nanoTime() - beginTime);
+		}
+		report("PriorityQueue<Integer> add/poll", n, best);
+
+		for (int arity : ARITIES) {
+			best = Long.MAX_VALUE;
+			for (int round = 0; round < ROUNDS; round++) {
+				long beginTime = System.nanoTime();
+				IntHeap heap = new IntHeap(n, arity);
+				for (int v : values)
+					heap.add(v);
+				while (!heap.isEmpty())
+					sink += heap.poll();
+				best = Math.min(best, System.nanoTime() - beginTime);
+			}
+			report("IntHeap arity " + arity + " add/poll", n, best);
+		}
+
+		int[] a = new int[n];
+		best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.arraycopy(values, 0, a, 0, n);
+			long beginTime = System.nanoTime();
+			HeapSort.heapSort(a, n);
+			best = Math.min(best, System.nanoTime() - beginTime);
+		}
+		check(a, values);
+		report("HeapSort binary", n, best);
+
+		for (int arity : ARITIES) {
+			best = Long.MAX_VALUE;
+			for (int round = 0; round < ROUNDS; round++) {
+				System.arraycopy(values, 0, a, 0, n);
+				long beginTime = System.nanoTime();
+				HeapSort.sort(a, 0, n, arity);
+				best = Math.min(best, System.nanoTime() - beginTime);
+			}
+			check(a, values);
+			report("HeapSort arity " + arity + " bottom-up", n, best);
+		}
+		System.out.println(sink);
+	}
+
+	static void check(int[] sorted, int[] values) {
+		int[] expected = values.clone();
+		Arrays.sort(expected);
+		if (!Arrays.equals(sorted, expected))
+			throw new IllegalStateException("Not sorted");
+	}
+
+	static void report(String name, int n, long elapsedTime) {
+		System.out.printf("%-34s %,d elements: %8.1f ms%n", name, n, elapsedTime / 1e6);
+	}
+}
@@ -27,24 +27,109 @@ public class HeapSort {
 
 	// Hoán vị nút cha thứ i phải lớn hơn nút con
 	static void heapify(int a[], int n, int i) {
-		// Vị trí con trái, phải của i
-		int left = 2 * i + 1;
-		int right = 2 * i + 2;
-		int largest = i; // Initialize largest as root
-		// If left child is larger than root
-		if (left < n && a[left] > a[i]) {
-			largest = left;
-		}
-		// If right child is larger than largest so far
-		if (right < n && a[right] > a[largest]) {
-			largest = right;
-		}
-		// If largest is not root
-		if (i != largest) {
-			swap(a, i, largest);
-			// Recursively heapify the affected sub-tree
-			heapify(a, n, largest);
+		siftDown(a, 0, n, i);
+	}
+
+	/** Sort the range a[from..to) in place */
+	static void sort(int a[], int from, int to) {
+		int n = to - from;
+		for (int i = n / 2 - 1; i >= 0; i--) {
+			siftDown(a, from, n, i);
+		}
+		for (int i = n - 1; i > 0; i--) {
+			swap(a, from, from + i);
+			siftDown(a, from, i, 0);
+		}
+	}
+
+	// Iterative heapify of the heap stored in a[from..from+n)
+	static void siftDown(int a[], int from, int n, int i) {
+		int value = a[from + i];
+		int child;
+		while ((child = 2 * i + 1) < n) {
+			if (child + 1 < n && a[from + child + 1] > a[from + child]) {
+				child++;
+			}
+			if (value >= a[from + child]) {
+				break;
+			}
+			a[from + i] = a[from + child];
+			i = child;
+		}
+		a[from + i] = value;
+	}
+
+	/**
+	 * Heap sort trên d-ary heap: mỗi nút có arity con nằm liền nhau trong mảng,
+	 * nên với arity 4 hoặc 8 cây thấp hơn và mỗi tầng chỉ đọc một đoạn nhớ liên
+	 * tiếp (ít cache miss hơn khi mảng lớn hơn cache). Khi lấy phần tử lớn nhất
+	 * ra dùng cách bottom-up của Floyd. arity phải là lũy thừa của 2 để tính
+	 * chỉ số con/cha bằng phép dịch bit thay vì phép chia.
+	 */
+	public static void sort(int a[], int from, int to, int arity) {
+		if (arity < 2 || Integer.bitCount(arity) != 1)
+			throw new IllegalArgumentException("arity must be a power of two >= 2: " + arity);
+		int shift = Integer.numberOfTrailingZeros(arity);
+		int n = to - from;
+		if (n < 2)
+			return;
+		for (int i = (n - 2) >> shift; i >= 0; i--) {
+			siftDown(a, from, n, i, shift);
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int value = a[from + i];
+			a[from + i] = a[from];
+			siftDownBottomUp(a, from, i, value, shift);
+		}
+	}
+
+	// Top-down sift of node i in the 2^shift-ary heap a[from..from+n)
+	static void siftDown(int a[], int from, int n, int i, int shift) {
+		int value = a[from + i];
+		int child;
+		while ((child = (i << shift) + 1) < n) {
+			int largest = largestChild(a, from, child, Math.min(child + (1 << shift), n));
+			if (value >= a[from + largest]) {
+				break;
+			}
+			a[from + i] = a[from + largest];
+			i = largest;
+		}
+		a[from + i] = value;
+	}
+
+	/**
+	 * Floyd: the root is empty, so move the hole down to a leaf along the
+	 * largest children without comparing against value, then sift value up
+	 * from there. value usually came from the bottom and belongs near a leaf,
+	 * which saves about one comparison per level.
+	 */
+	static void siftDownBottomUp(int a[], int from, int n, int value, int shift) {
+		int i = 0, child;
+		while ((child = (i << shift) + 1) < n) {
+			int largest = largestChild(a, from, child, Math.min(child + (1 << shift), n));
+			a[from + i] = a[from + largest];
+			i = largest;
+		}
+		int parent;
+		while (i > 0 && a[from + (parent = (i - 1) >> shift)] < value) {
+			a[from + i] = a[from + parent];
+			i = parent;
+		}
+		a[from + i] = value;
+	}
+
+	// Index of the largest of the children first..last-1
+	private static int largestChild(int a[], int from, int first, int last) {
+		int largest = first, max = a[from + first];
+		for (int c = first + 1; c < last; c++) {
+			int value = a[from + c];
+			if (value > max) {
+				max = value;
+				largest = c;
+			}
 		}
+		return largest;
 	}
 
 	static void swap(int a[], int x, int y) {
@@ -0,0 +1,119 @@
+package sorts;
+
+import java.util.Comparator;
+
+/**
+ * Adaptive sorter: one scan measures presortedness (number of descents) and
+ * the key range, then the cheapest algorithm for that input is used.
+ * - tiny ranges: insertion sort
+ * - already sorted / reversed: nothing / reverse
+ * - dense key range: counting sort
+ * - few runs: merge sort, which skips merging runs already in order
+ * - large random input: radix sort
+ * - otherwise introsort: dual-pivot quicksort falling back to heapsort when
+ * the recursion gets too deep
+ * Objects are sorted stably: insertion or merge sort after the same run check.
+ */
+public class HybridSorter implements Sorter {
+
+	static final int INSERTION_SORT_THRESHOLD = QuickSort.INSERTION_SORT_THRESHOLD;
+	static final int RADIX_THRESHOLD = 1 << 16;
+	// Input with at most n / NEARLY_SORTED_RUNS descents counts as nearly sorted
+	static final int NEARLY_SORTED_RUNS = 64;
+
+	public static void main(String[] args) {
+		int[] a = { 1, -5, 3, 13, 9, 31, 4 };
+		new HybridSorter().sort(a);
+		for (int i = 0; i < a.length; i++) {
+			System.out.print(a[i] + " ");
+		}
+		System.out.println();
+		String[] s = { "pear", "Apple", "fig", "banana" };
+		new HybridSorter().sort(s, String.CASE_INSENSITIVE_ORDER);
+		System.out.println(String.join(" ", s));
+	}
+
+	@Override
+	public void sort(int[] a, int fromIndex, int toIndex) {
+		SortAlgorithm.rangeCheck(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (n <= INSERTION_SORT_THRESHOLD) {
+			QuickSort.insertionSort(a, fromIndex, toIndex - 1);
+			return;
+		}
+		int descents = 0, ascents = 0;
+		int min = a[fromIndex], max = a[fromIndex];
+		for (int i = fromIndex + 1; i < toIndex; i++) {
+			if (a[i] < a[i - 1])
+				descents++;
+			else if (a[i] > a[i - 1])
+				ascents++;
+			if (a[i] < min)
+				min = a[i];
+			else if (a[i] > max)
+				max = a[i];
+		}
+		if (descents == 0)
+			return; // already sorted
+		if (ascents == 0) {
+			reverse(a, fromIndex, toIndex - 1);
+			return;
+		}
+		long range = (long) max - min + 1;
+		if (CountingSort.isDense(range, n)) {
+			CountingSort.countingSort(a, fromIndex, toIndex, min, (int) range);
+		} else if (descents <= n / NEARLY_SORTED_RUNS) {
+			// buffer[0] stands for a[fromIndex]
+			ParallelMergeSort.sequentialSort(a, new int[n], fromIndex, fromIndex, toIndex - 1);
+		} else if (n >= RADIX_THRESHOLD) {
+			RaddixSort.sort(a, fromIndex, toIndex);
+		} else {
+			introSort(a, fromIndex, toIndex - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+		}
+	}
+
+	@Override
+	public <T> void sort(T[] a, int fromIndex, int toIndex, Comparator<? super T> c) {
+		SortAlgorithm.rangeCheck(a.length, fromIndex, toIndex);
+		if (toIndex - fromIndex <= INSERTION_SORT_THRESHOLD) {
+			GenericSorts.insertionSort(a, fromIndex, toIndex, c);
+			return;
+		}
+		int descents = 0, ascents = 0;
+		for (int i = fromIndex + 1; i < toIndex; i++) {
+			int cmp = c.compare(a[i], a[i - 1]);
+			if (cmp < 0)
+				descents++;
+			else
+				ascents++; // equal elements count too: reversing them would break stability
+		}
+		if (descents == 0)
+			return;
+		if (ascents == 0) {
+			for (int i = fromIndex, j = toIndex - 1; i < j; i++, j--)
+				GenericSorts.swap(a, i, j);
+			return;
+		}
+		GenericSorts.mergeSort(a, fromIndex, toIndex, c);
+	}
+
+	/** Quicksort with a depth budget; past it the range is heapsorted */
+	static void introSort(int[] a, int left, int right, int depth) {
+		while (right - left >= INSERTION_SORT_THRESHOLD) {
+			if (depth-- == 0) {
+				HeapSort.sort(a, left, right + 1);
+				return;
+			}
+			int[] bounds = QuickSort.partition(a, left, right);
+			introSort(a, left, bounds[0] - 1, depth);
+			introSort(a, bounds[1], bounds[2], depth);
+			left = bounds[3] + 1;
+		}
+		QuickSort.insertionSort(a, left, right);
+	}
+
+	static void reverse(int[] a, int i, int j) {
+		for (; i < j; i++, j--)
+			QuickSort.swap(a, i, j);
+	}
+}
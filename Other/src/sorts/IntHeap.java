@@ -0,0 +1,117 @@
+package sorts;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Priority queue of primitive ints, smallest first like PriorityQueue<Integer>
+ * but without boxing. The heap is d-ary (4-ary by default) and poll() uses the
+ * bottom-up sift from HeapSort. The arity must be a power of two so that
+ * parent and child indexes are shifts instead of divisions.
+ *
+ * The siblings of a node are stored next to each other, and the array is
+ * shifted by arity - 1 slots so that every sibling group starts at an index
+ * divisible by arity. With arity 4 or 8 a group is one 16 or 32 byte block, so
+ * finding the smallest child normally reads a single cache line.
+ */
+public class IntHeap {
+
+	private final int shift; // arity = 1 << shift
+	private final int offset; // data[offset + k] holds heap node k
+	private int[] data;
+	private int size;
+
+	public IntHeap(int capacity, int arity) {
+		if (arity < 2 || Integer.bitCount(arity) != 1)
+			throw new IllegalArgumentException("arity must be a power of two >= 2: " + arity);
+		this.shift = Integer.numberOfTrailingZeros(arity);
+		this.offset = arity - 1;
+		data = new int[offset + Math.max(capacity, 1)];
+	}
+
+	public IntHeap(int capacity) {
+		this(capacity, 4);
+	}
+
+	public IntHeap() {
+		this(16);
+	}
+
+	public void add(int value) {
+		if (offset + size == data.length)
+			data = Arrays.copyOf(data, offset + (size << 1));
+		siftUp(size++, value);
+	}
+
+	/** Remove and return the smallest element */
+	public int poll() {
+		int root = peek();
+		int value = data[offset + --size];
+		if (size > 0)
+			siftDownBottomUp(value);
+		return root;
+	}
+
+	/**
+	 * Replace the smallest element by value and return it; cheaper than poll()
+	 * followed by add().
+	 */
+	public int replaceTop(int value) {
+		int root = peek();
+		siftDownBottomUp(value);
+		return root;
+	}
+
+	/** Smallest element */
+	public int peek() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return data[offset];
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/** The elements in heap order */
+	public int[] toArray() {
+		return Arrays.copyOfRange(data, offset, offset + size);
+	}
+
+	private void siftUp(int k, int value) {
+		while (k > 0) {
+			int parent = (k - 1) >> shift;
+			if (data[offset + parent] <= value)
+				break;
+			data[offset + k] = data[offset + parent];
+			k = parent;
+		}
+		data[offset + k] = value;
+	}
+
+	// Move the hole at the root down to a leaf, then put value in from there
+	private void siftDownBottomUp(int value) {
+		int k = 0, child;
+		while ((child = (k << shift) + 1) < size) {
+			int last = Math.min(child + (1 << shift), size), smallest = child, min = data[offset + child];
+			for (int c = child + 1; c < last; c++) {
+				int v = data[offset + c];
+				if (v < min) {
+					min = v;
+					smallest = c;
+				}
+			}
+			data[offset + k] = min;
+			k = smallest;
+		}
+		siftUp(k, value);
+	}
+}
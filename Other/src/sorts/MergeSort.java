@@ -58,4 +58,30 @@ public class MergeSort {
 			array[k++] = R[j++];
 	}
 
+	/**
+	 * Merge the sorted runs array[left..mid] and array[mid+1..right] using the
+	 * caller's scratch buffer instead of allocating temp arrays.
+	 */
+	static void merge(int array[], int buffer[], int left, int mid, int right) {
+		merge(array, buffer, 0, left, mid, right);
+	}
+
+	/** Same, with buffer[0] standing for array[base] */
+	static void merge(int array[], int buffer[], int base, int left, int mid, int right) {
+		if (array[mid] <= array[mid + 1])
+			return; // already in order
+		System.arraycopy(array, left, buffer, left - base, right - left + 1);
+		merge(buffer, left - base, mid - base, mid + 1 - base, right - base, array, left);
+	}
+
+	/** Merge src[l1..r1] and src[l2..r2] into dest starting at k */
+	static void merge(int src[], int l1, int r1, int l2, int r2, int dest[], int k) {
+		while (l1 <= r1 && l2 <= r2)
+			dest[k++] = (src[l1] <= src[l2]) ? src[l1++] : src[l2++];
+		if (l1 <= r1)
+			System.arraycopy(src, l1, dest, k, r1 - l1 + 1);
+		else if (l2 <= r2)
+			System.arraycopy(src, l2, dest, k, r2 - l2 + 1);
+	}
+
 }
@@ -0,0 +1,136 @@
+package sorts;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Độ phức tạp thuật toán: O(nlogn), chạy song song bằng fork/join.
+ * Hai nửa được sắp xếp song song rồi ghép lại; việc ghép cũng được chia nhỏ
+ * bằng tìm kiếm nhị phân. Cả quá trình dùng chung một mảng phụ.
+ */
+public class ParallelMergeSort {
+
+	// Below this size a task sorts its range on the current thread
+	static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+	public static void main(String[] args) {
+		int[] a = { 4, 2, 5, 10, 7, 1, 15, 74, 13, 21 };
+		sort(a);
+		for (int i = 0; i < a.length; i++) {
+			System.out.print(a[i] + " ");
+		}
+	}
+
+	public static void sort(int[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	public static void sort(int[] a, ForkJoinPool pool) {
+		if (a.length < 2)
+			return;
+		int[] buffer = new int[a.length]; // the only scratch allocation
+		pool.invoke(new SortTask(a, buffer, 0, a.length - 1));
+	}
+
+	/** Sort a[0..length) with the caller's buffer, which is at least length long */
+	static void sort(int[] a, int[] buffer, int length, ForkJoinPool pool) {
+		if (length >= 2)
+			pool.invoke(new SortTask(a, buffer, 0, length - 1));
+	}
+
+	/** Sort a[left..right] sequentially with the shared buffer */
+	static void sequentialSort(int[] a, int[] buffer, int left, int right) {
+		sequentialSort(a, buffer, 0, left, right);
+	}
+
+	/**
+	 * Sort a[left..right] sequentially with a buffer whose index 0 stands for
+	 * a[base], so it only needs to cover the range from base
+	 */
+	static void sequentialSort(int[] a, int[] buffer, int base, int left, int right) {
+		if (right - left < QuickSort.INSERTION_SORT_THRESHOLD) {
+			QuickSort.insertionSort(a, left, right);
+			return;
+		}
+		int mid = (left + right) >>> 1;
+		sequentialSort(a, buffer, base, left, mid);
+		sequentialSort(a, buffer, base, mid + 1, right);
+		MergeSort.merge(a, buffer, base, left, mid, right);
+	}
+
+	static class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] a, buffer;
+		private final int left, right;
+
+		SortTask(int[] a, int[] buffer, int left, int right) {
+			this.a = a;
+			this.buffer = buffer;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		protected void compute() {
+			if (right - left < SEQUENTIAL_THRESHOLD) {
+				sequentialSort(a, buffer, left, right);
+				return;
+			}
+			int mid = (left + right) >>> 1;
+			invokeAll(new SortTask(a, buffer, left, mid), new SortTask(a, buffer, mid + 1, right));
+			if (a[mid] <= a[mid + 1])
+				return; // already in order
+			System.arraycopy(a, left, buffer, left, right - left + 1);
+			new MergeTask(buffer, left, mid, mid + 1, right, a, left).compute();
+		}
+	}
+
+	/** Merge src[l1..r1] and src[l2..r2] into dest starting at k */
+	static class MergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] src, dest;
+		private final int l1, r1, l2, r2, k;
+
+		MergeTask(int[] src, int l1, int r1, int l2, int r2, int[] dest, int k) {
+			this.src = src;
+			this.l1 = l1;
+			this.r1 = r1;
+			this.l2 = l2;
+			this.r2 = r2;
+			this.dest = dest;
+			this.k = k;
+		}
+
+		@Override
+		protected void compute() {
+			int n1 = r1 - l1 + 1, n2 = r2 - l2 + 1;
+			if (n1 + n2 < SEQUENTIAL_THRESHOLD) {
+				MergeSort.merge(src, l1, r1, l2, r2, dest, k);
+				return;
+			}
+			if (n1 < n2) { // split the longer run
+				new MergeTask(src, l2, r2, l1, r1, dest, k).compute();
+				return;
+			}
+			// Split run 1 at its middle, find where that value falls in run 2
+			int m1 = (l1 + r1) >>> 1;
+			int m2 = lowerBound(src, l2, r2 + 1, src[m1]);
+			int km = k + (m1 - l1) + (m2 - l2);
+			dest[km] = src[m1];
+			invokeAll(new MergeTask(src, l1, m1 - 1, l2, m2 - 1, dest, k),
+					new MergeTask(src, m1 + 1, r1, m2, r2, dest, km + 1));
+		}
+	}
+
+	/** First index in src[from..to) whose value is >= key */
+	static int lowerBound(int[] src, int from, int to, int key) {
+		while (from < to) {
+			int mid = (from + to) >>> 1;
+			if (src[mid] < key)
+				from = mid + 1;
+			else
+				to = mid;
+		}
+		return from;
+	}
+}
@@ -0,0 +1,54 @@
+package sorts;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Độ phức tạp thuật toán: trung bình O(nlogn), chạy song song bằng fork/join.
+ * Dùng dual-pivot partition của QuickSort; 3 phần sau khi chia được sắp xếp
+ * song song cho tới khi đủ nhỏ để sắp xếp tuần tự.
+ */
+public class ParallelQuickSort {
+
+	// Below this size a task sorts its range on the current thread
+	static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+	public static void main(String[] args) {
+		int[] a = { 1, 5, 3, 13, 9, 31, 4 };
+		sort(a);
+		for (int i = 0; i < a.length; i++) {
+			System.out.print(a[i] + " ");
+		}
+	}
+
+	public static void sort(int[] a) {
+		sort(a, ForkJoinPool.commonPool());
+	}
+
+	public static void sort(int[] a, ForkJoinPool pool) {
+		pool.invoke(new SortTask(a, 0, a.length - 1));
+	}
+
+	static class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] a;
+		private final int left, right;
+
+		SortTask(int[] a, int left, int right) {
+			this.a = a;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		protected void compute() {
+			if (right - left < SEQUENTIAL_THRESHOLD) {
+				QuickSort.dualPivotSort(a, left, right);
+				return;
+			}
+			int[] bounds = QuickSort.partition(a, left, right);
+			invokeAll(new SortTask(a, left, bounds[0] - 1), new SortTask(a, bounds[1], bounds[2]),
+					new SortTask(a, bounds[3] + 1, right));
+		}
+	}
+}
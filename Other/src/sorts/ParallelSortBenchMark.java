@@ -0,0 +1,79 @@
+package sorts;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Speedup of ParallelMergeSort and ParallelQuickSort against the number of
+ * fork/join worker threads, printed as a table (one row per thread count).
+ * Sizes can be given as arguments, e.g. "100000 1000000 100000000"; 1e8 ints
+ * need about 1 GB of heap (-Xmx1g) for the array, its copy and the buffer.
+ */
+public class ParallelSortBenchMark {
+
+	static final int ROUNDS = 3; // best of
+
+	public static void main(String[] args) {
+		int[] sizes = { 100000, 1000000, 10000000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.println("Available processors: " + cores);
+		for (int n : sizes) {
+			int[] data = new Random(n).ints(n).toArray();
+			int[] a = new int[n];
+			long baseline = best(data, a, 0, null);
+			System.out.printf("n=%,d  Arrays.sort %.1f ms%n", n, baseline / 1e6);
+			System.out.println("threads   merge ms  speedup   quick ms  speedup");
+			long merge1 = 0, quick1 = 0;
+			for (int threads = 1; threads <= cores; threads = nextThreads(threads, cores)) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				long merge = best(data, a, 1, pool);
+				long quick = best(data, a, 2, pool);
+				pool.shutdown();
+				if (threads == 1) {
+					merge1 = merge;
+					quick1 = quick;
+				}
+				System.out.printf("%7d %10.1f %7.2fx %10.1f %7.2fx%n", threads, merge / 1e6, (double) merge1 / merge,
+						quick / 1e6, (double) quick1 / quick);
+				if (threads == cores)
+					break;
+			}
+		}
+	}
+
+	static int nextThreads(int threads, int cores) {
+		return Math.min(threads * 2, cores);
+	}
+
+	/** Best time over ROUNDS runs of algorithm 0 (Arrays.sort), 1 (merge) or 2 (quick) */
+	static long best(int[] data, int[] a, int algorithm, ForkJoinPool pool) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.arraycopy(data, 0, a, 0, data.length);
+			long beginTime = System.nanoTime();
+			if (algorithm == 0)
+				Arrays.sort(a);
+			else if (algorithm == 1)
+				ParallelMergeSort.sort(a, pool);
+			else
+				ParallelQuickSort.sort(a, pool);
+			best = Math.min(best, System.nanoTime() - beginTime);
+			if (!isSorted(a))
+				throw new IllegalStateException("Not sorted");
+		}
+		return best;
+	}
+
+	static boolean isSorted(int[] a) {
+		for (int i = 1; i < a.length; i++)
+			if (a[i - 1] > a[i])
+				return false;
+		return true;
+	}
+}
@@ -18,13 +18,13 @@ public class QuickSort {
 
 	public static void sort(int a[], int left, int right) {
 		int i = left, j = right;
-		int pivot = (left + right) / 2;
+		int pivot = a[(left + right) / 2]; // giá trị pivot, không phải chỉ số
 		do {
 			// tìm phần tử lớn hơn pivot nhưng lại nằm bên trái pivot
-			while (a[i] < a[pivot])
+			while (a[i] < pivot)
 				i++;
 			// tìm phần tử nhỏ hơn pivot nhưng lại nằm bên phải pivot
-			while (a[j] > a[pivot])
+			while (a[j] > pivot)
 				j--;
 			// Hoán đổi i và j
 			if (i <= j) {
@@ -43,4 +43,113 @@ public class QuickSort {
 			sort(a, i, right);
 		}
 	}
+
+	// Below this size insertion sort beats partitioning
+	static final int INSERTION_SORT_THRESHOLD = 32;
+	// From this size each pivot sample is a median of three (ninther)
+	static final int NINTHER_THRESHOLD = 1 << 10;
+
+	/**
+	 * Dual-pivot quicksort: chọn 2 pivot p1 <= p2 và chia mảng thành 3 phần
+	 * (< p1, giữa p1 và p2, > p2).
+	 */
+	public static void dualPivotSort(int a[], int left, int right) {
+		while (right - left >= INSERTION_SORT_THRESHOLD) {
+			int[] bounds = partition(a, left, right);
+			dualPivotSort(a, left, bounds[0] - 1);
+			dualPivotSort(a, bounds[1], bounds[2]);
+			// Loop on the last part instead of recursing
+			left = bounds[3] + 1;
+		}
+		insertionSort(a, left, right);
+	}
+
+	/**
+	 * Partition a[left..right] around two pivots p1 <= p2 taken from a 5-element
+	 * sample. Afterwards:
+	 * a[left..lt-1] < p1, a[lt..m1-1] == p1, p1 < a[m1..m2] < p2,
+	 * a[m2+1..gt] == p2 and a[gt+1..right] > p2.
+	 * Only the three strict ranges still need sorting, so runs of duplicates
+	 * never recurse.
+	 *
+	 * @return int[4] of {lt, m1, m2, gt}
+	 */
+	static int[] partition(int a[], int left, int right) {
+		choosePivots(a, left, right);
+		int p1 = a[left], p2 = a[right];
+		int lt = left + 1, gt = right - 1;
+		for (int k = lt; k <= gt; k++) {
+			if (a[k] < p1) {
+				swap(a, k, lt++);
+			} else if (a[k] > p2) {
+				while (a[gt] > p2 && k < gt)
+					gt--;
+				swap(a, k, gt--);
+				if (a[k] < p1)
+					swap(a, k, lt++);
+			}
+		}
+		// Move the pivots to their final positions
+		swap(a, left, --lt);
+		swap(a, right, ++gt);
+
+		// Gather the elements equal to a pivot at the ends of the middle part
+		int m1 = lt + 1, m2 = gt - 1;
+		for (int k = m1; k <= m2; k++) {
+			if (a[k] == p1) {
+				swap(a, k, m1++);
+			} else if (a[k] == p2) {
+				while (a[m2] == p2 && k < m2)
+					m2--;
+				swap(a, k, m2--);
+				if (a[k] == p1)
+					swap(a, k, m1++);
+			}
+		}
+		return new int[] { lt, m1, m2, gt };
+	}
+
+	/** Place the 2nd and 4th of five sorted samples at a[left] and a[right] */
+	static void choosePivots(int a[], int left, int right) {
+		int seventh = (right - left + 1) / 7;
+		int e3 = (left + right) >>> 1;
+		int e2 = e3 - seventh, e1 = e2 - seventh;
+		int e4 = e3 + seventh, e5 = e4 + seventh;
+		int[] samples = { e1, e2, e3, e4, e5 };
+		if (right - left + 1 >= NINTHER_THRESHOLD) {
+			// Replace each sample by the median of itself and its neighbours
+			int step = seventh / 4;
+			for (int i = 0; i < samples.length; i++)
+				samples[i] = medianOfThree(a, samples[i] - step, samples[i], samples[i] + step);
+		}
+		// Sort the sample values in place (their positions stay fixed)
+		for (int i = 1; i < samples.length; i++)
+			for (int j = i; j > 0 && a[samples[j - 1]] > a[samples[j]]; j--)
+				swap(a, samples[j - 1], samples[j]);
+		swap(a, left, samples[1]);
+		swap(a, right, samples[3]);
+	}
+
+	/** Index of the median of a[i], a[j], a[k] */
+	static int medianOfThree(int a[], int i, int j, int k) {
+		return a[i] < a[j] ? (a[j] < a[k] ? j : a[i] < a[k] ? k : i) : (a[k] < a[j] ? j : a[k] < a[i] ? k : i);
+	}
+
+	static void insertionSort(int a[], int left, int right) {
+		for (int i = left + 1; i <= right; i++) {
+			int key = a[i];
+			int j = i - 1;
+			while (j >= left && a[j] > key) {
+				a[j + 1] = a[j];
+				j--;
+			}
+			a[j + 1] = key;
+		}
+	}
+
+	static void swap(int a[], int x, int y) {
+		int temp = a[x];
+		a[x] = a[y];
+		a[y] = temp;
+	}
 }
@@ -1,65 +1,257 @@
 package sorts;
 
-import java.util.Arrays;
+import java.util.stream.IntStream;
 
-/** Độ phức tạp thuật toán O(n) */
+/**
+ * Độ phức tạp thuật toán O(n)
+ * LSD radix sort theo từng byte (cơ số 256): int cần 4 lượt, long cần 8 lượt.
+ * Số âm và số thực được đổi sang dạng bit có thứ tự giống thứ tự số, nên được
+ * sắp xếp đúng. Lượt nào mà mọi phần tử có cùng byte thì bỏ qua.
+ */
 public class RaddixSort {
 
+	// From this size the histograms are counted in parallel
+	static final int PARALLEL_THRESHOLD = 1 << 18;
+
 	public static void main(String[] args) {
-		int[] a = { 1, 5, 3, 13, 9, 31, 4 };
+		int[] a = { 1, -5, 3, 13, -9, 31, 4 };
 		sort(a);
 		for (int i = 0; i < a.length; i++) {
 			System.out.print(a[i] + " ");
 		}
+		System.out.println();
+		double[] d = { 2.5, -0.0, -7.25, 0.0, Double.NaN, -1e300, 3 };
+		sort(d);
+		for (int i = 0; i < d.length; i++) {
+			System.out.print(d[i] + " ");
+		}
+	}
+
+	/** Flip the sign bit so that signed order equals unsigned order */
+	static int key(int value) {
+		return value ^ Integer.MIN_VALUE;
+	}
+
+	static long key(long value) {
+		return value ^ Long.MIN_VALUE;
+	}
+
+	/** Negative floats: flip every bit; positive floats: flip the sign bit */
+	static int key(float value) {
+		int bits = Float.floatToIntBits(value); // NaNs collapse to one value, sorted last
+		return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+	}
+
+	static long key(double value) {
+		long bits = Double.doubleToLongBits(value);
+		return bits ^ ((bits >> 63) | Long.MIN_VALUE);
 	}
 
-	static void sort(int[] a) {
-		int m = getMax(a);
-		for (int exp = 1; m / exp > 0; exp *= 10) {
-			countSort(a, a.length, exp);
+	public static void sort(int[] a) {
+		sort(a, 0, a.length);
+	}
+
+	/** Sort the range a[fromIndex..toIndex) */
+	public static void sort(int[] a, int fromIndex, int toIndex) {
+		int n = toIndex - fromIndex;
+		if (n < 2)
+			return;
+		int[][] count = histograms(a, fromIndex, n);
+		// Pass 0 reads the range in place; later passes ping-pong with the buffer
+		int[] src = a, dst = new int[n]; // the single scratch buffer
+		int srcStart = fromIndex, dstStart = 0;
+		for (int pass = 0; pass < 4; pass++) {
+			int[] offset = offsets(count[pass], n);
+			if (offset == null)
+				continue; // every element has the same byte here
+			int shift = pass * 8;
+			for (int i = srcStart; i < srcStart + n; i++)
+				dst[dstStart + offset[(key(src[i]) >>> shift) & 0xFF]++] = src[i];
+			int[] temp = src;
+			src = dst;
+			dst = temp;
+			int tempStart = srcStart;
+			srcStart = dstStart;
+			dstStart = tempStart;
 		}
+		if (src != a)
+			System.arraycopy(src, srcStart, a, fromIndex, n);
 	}
 
-	// A function to do counting sort of a[] according to
-    // the digit represented by exp.
-	static void countSort(int[] a, int n, int exp) {
-		int[] output = new int[n]; // output array
-		int i;
-		int[] count = new int[10];
-		Arrays.fill(count, 0);
-
-		// Store count of occurrences in count[]
-		for (i = 0; i < n; i++) {
-			count[(a[i] / exp) % 10]++;
+	/**
+	 * Stable sort of records by key: keys[i] is the key of values[i], and both
+	 * arrays are reordered together.
+	 */
+	public static <T> void sort(int[] keys, T[] values) {
+		int n = keys.length;
+		if (values.length != n)
+			throw new IllegalArgumentException("keys and values differ in length");
+		if (n < 2)
+			return;
+		int[][] count = histograms(keys, 0, n);
+		int[] src = keys, dst = new int[n];
+		Object[] srcValues = values, dstValues = new Object[n];
+		for (int pass = 0; pass < 4; pass++) {
+			int[] offset = offsets(count[pass], n);
+			if (offset == null)
+				continue;
+			int shift = pass * 8;
+			for (int i = 0; i < n; i++) {
+				int k = offset[(key(src[i]) >>> shift) & 0xFF]++;
+				dst[k] = src[i];
+				dstValues[k] = srcValues[i];
+			}
+			int[] temp = src;
+			src = dst;
+			dst = temp;
+			Object[] tempValues = srcValues;
+			srcValues = dstValues;
+			dstValues = tempValues;
+		}
+		if (src != keys) {
+			System.arraycopy(src, 0, keys, 0, n);
+			System.arraycopy(srcValues, 0, values, 0, n);
 		}
+	}
 
-		// Change count[i] so that count[i] now contains
-        // actual position of this digit in output[]
-		for (i = 1; i < 10; i++) {
-			count[i] += count[i - 1];
+	public static void sort(long[] a) {
+		int n = a.length;
+		if (n < 2)
+			return;
+		int[][] count = histograms(n, 8, (from, to, c) -> {
+			for (int i = from; i < to; i++) {
+				long k = key(a[i]);
+				for (int pass = 0; pass < 8; pass++)
+					c[pass][(int) (k >>> (pass * 8)) & 0xFF]++;
+			}
+		});
+		long[] src = a, dst = new long[n];
+		for (int pass = 0; pass < 8; pass++) {
+			int[] offset = offsets(count[pass], n);
+			if (offset == null)
+				continue;
+			int shift = pass * 8;
+			for (int i = 0; i < n; i++)
+				dst[offset[(int) (key(src[i]) >>> shift) & 0xFF]++] = src[i];
+			long[] temp = src;
+			src = dst;
+			dst = temp;
 		}
+		if (src != a)
+			System.arraycopy(src, 0, a, 0, n);
+	}
 
-		// Build the output array
-		for (i = n - 1; i >= 0; i--) {
-			output[count[(a[i] / exp) % 10] - 1] = a[i];
-			count[(a[i] / exp % 10)]--;
+	public static void sort(float[] a) {
+		int n = a.length;
+		if (n < 2)
+			return;
+		int[][] count = histograms(n, 4, (from, to, c) -> {
+			for (int i = from; i < to; i++) {
+				int k = key(a[i]);
+				c[0][k & 0xFF]++;
+				c[1][(k >>> 8) & 0xFF]++;
+				c[2][(k >>> 16) & 0xFF]++;
+				c[3][k >>> 24]++;
+			}
+		});
+		float[] src = a, dst = new float[n];
+		for (int pass = 0; pass < 4; pass++) {
+			int[] offset = offsets(count[pass], n);
+			if (offset == null)
+				continue;
+			int shift = pass * 8;
+			for (int i = 0; i < n; i++)
+				dst[offset[(key(src[i]) >>> shift) & 0xFF]++] = src[i];
+			float[] temp = src;
+			src = dst;
+			dst = temp;
 		}
+		if (src != a)
+			System.arraycopy(src, 0, a, 0, n);
+	}
 
-		// Copy the output array to a[], so that a[] now
-        // contains sorted numbers according to curent digit
-		for (i = 0; i < n; i++) {
-			a[i] = output[i];
+	public static void sort(double[] a) {
+		int n = a.length;
+		if (n < 2)
+			return;
+		int[][] count = histograms(n, 8, (from, to, c) -> {
+			for (int i = from; i < to; i++) {
+				long k = key(a[i]);
+				for (int pass = 0; pass < 8; pass++)
+					c[pass][(int) (k >>> (pass * 8)) & 0xFF]++;
+			}
+		});
+		double[] src = a, dst = new double[n];
+		for (int pass = 0; pass < 8; pass++) {
+			int[] offset = offsets(count[pass], n);
+			if (offset == null)
+				continue;
+			int shift = pass * 8;
+			for (int i = 0; i < n; i++)
+				dst[offset[(int) (key(src[i]) >>> shift) & 0xFF]++] = src[i];
+			double[] temp = src;
+			src = dst;
+			dst = temp;
 		}
+		if (src != a)
+			System.arraycopy(src, 0, a, 0, n);
 	}
 
-	// Tìm giá trị lớn nhất của mảng
-	static int getMax(int[] a) {
-		int max = a[0];
-		for (int i = 0; i < a.length; i++) {
-			if (a[i] > max) {
-				max = a[i];
+	/** Counts the bytes of a[from..to) into c[pass][byte] */
+	interface Counter {
+		void count(int from, int to, int[][] c);
+	}
+
+	/** Byte histograms of the 4 passes over a[fromIndex..fromIndex+n) */
+	static int[][] histograms(int[] a, int fromIndex, int n) {
+		return histograms(n, 4, (from, to, c) -> {
+			for (int i = fromIndex + from; i < fromIndex + to; i++) {
+				int k = key(a[i]);
+				c[0][k & 0xFF]++;
+				c[1][(k >>> 8) & 0xFF]++;
+				c[2][(k >>> 16) & 0xFF]++;
+				c[3][k >>> 24]++;
 			}
+		});
+	}
+
+	/**
+	 * Byte histograms for every pass, all taken in one scan of the input. Large
+	 * inputs are split into chunks counted in parallel and then summed.
+	 */
+	static int[][] histograms(int n, int passes, Counter counter) {
+		if (n < PARALLEL_THRESHOLD) {
+			int[][] count = new int[passes][256];
+			counter.count(0, n, count);
+			return count;
+		}
+		int chunks = Math.min(Runtime.getRuntime().availableProcessors() * 4, n / (PARALLEL_THRESHOLD / 4));
+		int chunkSize = (n + chunks - 1) / chunks;
+		return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+			int[][] count = new int[passes][256];
+			counter.count(chunk * chunkSize, Math.min(n, (chunk + 1) * chunkSize), count);
+			return count;
+		}).reduce((x, y) -> {
+			for (int pass = 0; pass < passes; pass++)
+				for (int b = 0; b < 256; b++)
+					x[pass][b] += y[pass][b];
+			return x;
+		}).get();
+	}
+
+	/**
+	 * Turn counts into starting positions (prefix sum). Returns null when one
+	 * byte value holds all n elements, i.e. the pass would not move anything.
+	 */
+	static int[] offsets(int[] count, int n) {
+		int[] offset = new int[256];
+		int sum = 0;
+		for (int b = 0; b < 256; b++) {
+			if (count[b] == n)
+				return null;
+			offset[b] = sum;
+			sum += count[b];
 		}
-		return max;
+		return offset;
 	}
 }
@@ -0,0 +1,68 @@
+package sorts;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * RaddixSort against Arrays.sort on random int, long and double arrays
+ * (default 10M elements, or the size given as argument).
+ */
+public class RadixSortBenchMark {
+
+	static final int ROUNDS = 5; // best of
+
+	public static void main(String[] args) {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+		Random random = new Random(42);
+
+		int[] ints = random.ints(n).toArray();
+		int[] intCopy = new int[n];
+		long jdk = Long.MAX_VALUE, radix = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.arraycopy(ints, 0, intCopy, 0, n);
+			long beginTime = System.nanoTime();
+			Arrays.sort(intCopy);
+			jdk = Math.min(jdk, System.nanoTime() - beginTime);
+			System.arraycopy(ints, 0, intCopy, 0, n);
+			beginTime = System.nanoTime();
+			RaddixSort.sort(intCopy);
+			radix = Math.min(radix, System.nanoTime() - beginTime);
+		}
+		report("int", n, jdk, radix);
+
+		long[] longs = random.longs(n).toArray();
+		long[] longCopy = new long[n];
+		jdk = radix = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.arraycopy(longs, 0, longCopy, 0, n);
+			long beginTime = System.nanoTime();
+			Arrays.sort(longCopy);
+			jdk = Math.min(jdk, System.nanoTime() - beginTime);
+			System.arraycopy(longs, 0, longCopy, 0, n);
+			beginTime = System.nanoTime();
+			RaddixSort.sort(longCopy);
+			radix = Math.min(radix, System.nanoTime() - beginTime);
+		}
+		report("long", n, jdk, radix);
+
+		double[] doubles = random.doubles(n, -1e9, 1e9).toArray();
+		double[] doubleCopy = new double[n];
+		jdk = radix = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.arraycopy(doubles, 0, doubleCopy, 0, n);
+			long beginTime = System.nanoTime();
+			Arrays.sort(doubleCopy);
+			jdk = Math.min(jdk, System.nanoTime() - beginTime);
+			System.arraycopy(doubles, 0, doubleCopy, 0, n);
+			beginTime = System.nanoTime();
+			RaddixSort.sort(doubleCopy);
+			radix = Math.min(radix, System.nanoTime() - beginTime);
+		}
+		report("double", n, jdk, radix);
+	}
+
+	static void report(String type, int n, long jdk, long radix) {
+		System.out.printf("%-6s n=%,d  Arrays.sort %8.1f ms  RaddixSort %8.1f ms  (%.2fx)%n", type, n, jdk / 1e6,
+				radix / 1e6, (double) jdk / radix);
+	}
+}
@@ -0,0 +1,260 @@
+package sorts;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Chọn phần tử nhỏ thứ k (introselect) trong O(n) thay vì sắp xếp cả mảng
+ * O(nlogn). Dùng quickselect với cách chia mảng của QuickSort; nếu sau
+ * 2*log2(n) lần chia mà chưa xong (chọn pivot tệ) thì chuyển sang pivot
+ * median-of-medians, đảm bảo O(n) trong trường hợp xấu nhất.
+ *
+ * After select(a, k): a[k] holds the value it would have if a were sorted,
+ * a[0..k) <= a[k] and a[k+1..n) >= a[k].
+ */
+public class Selection {
+
+	public static void main(String[] args) {
+		int[] a = { 4, 2, 5, 10, 7, 1, 15, 74, 13, 21 };
+		System.out.println("3rd smallest: " + select(a, 2));
+		System.out.println("median: " + median(a));
+		partialSort(a, 4);
+		System.out.println("4 smallest: " + Arrays.toString(Arrays.copyOf(a, 4)));
+		String[] s = { "pear", "apple", "fig", "banana", "cherry" };
+		System.out.println("2nd word: " + select(s, 1));
+	}
+
+	public static int select(int[] a, int k) {
+		return select(a, 0, a.length, k);
+	}
+
+	/** k-th smallest (0-based, from <= k < to) of a[from..to), placed at a[k] */
+	public static int select(int[] a, int from, int to, int k) {
+		SortAlgorithm.rangeCheck(a.length, from, to);
+		if (k < from || k >= to)
+			throw new IndexOutOfBoundsException("k(" + k + ") outside [" + from + ", " + to + ")");
+		int left = from, right = to - 1;
+		int budget = 2 * (31 - Integer.numberOfLeadingZeros(to - from));
+		while (right - left >= QuickSort.INSERTION_SORT_THRESHOLD) {
+			if (budget-- > 0) {
+				int[] bounds = QuickSort.partition(a, left, right);
+				if (k < bounds[0]) {
+					right = bounds[0] - 1;
+				} else if (k > bounds[3]) {
+					left = bounds[3] + 1;
+				} else if (k >= bounds[1] && k <= bounds[2]) {
+					left = bounds[1];
+					right = bounds[2];
+				} else {
+					return a[k]; // equal to one of the pivots
+				}
+			} else {
+				int[] bounds = partition(a, left, right, medianOfMedians(a, left, right));
+				if (k < bounds[0])
+					right = bounds[0] - 1;
+				else if (k > bounds[1])
+					left = bounds[1] + 1;
+				else
+					return a[k];
+			}
+		}
+		QuickSort.insertionSort(a, left, right);
+		return a[k];
+	}
+
+	/** Median of a (mean of the two middle values when n is even); reorders a */
+	public static double median(int[] a) {
+		int n = a.length;
+		if (n == 0)
+			throw new IllegalArgumentException("median of an empty array");
+		int k = (n - 1) / 2;
+		int lower = select(a, k);
+		if (n % 2 == 1)
+			return lower;
+		int upper = a[k + 1]; // the smallest of a[k+1..n)
+		for (int i = k + 2; i < n; i++)
+			if (a[i] < upper)
+				upper = a[i];
+		return ((double) lower + upper) / 2;
+	}
+
+	/** Put the k smallest elements of a, in order, at a[0..k) */
+	public static void partialSort(int[] a, int k) {
+		if (k < 0 || k > a.length)
+			throw new IndexOutOfBoundsException("k(" + k + ") outside [0, " + a.length + "]");
+		if (k < a.length)
+			select(a, 0, a.length, k);
+		QuickSort.dualPivotSort(a, 0, k - 1);
+	}
+
+	/**
+	 * Pivot value that has at least 3/10 of a[left..right] on each side: the
+	 * median of the medians of groups of five.
+	 */
+	static int medianOfMedians(int[] a, int left, int right) {
+		int m = left;
+		for (int i = left; i <= right; i += 5) {
+			int end = Math.min(i + 4, right);
+			QuickSort.insertionSort(a, i, end);
+			QuickSort.swap(a, m++, (i + end) >>> 1);
+		}
+		// The group medians are now in a[left..m-1]
+		return select(a, left, m, (left + m - 1) >>> 1);
+	}
+
+	/**
+	 * Three-way partition of a[left..right] around value pivot.
+	 *
+	 * @return {lt, gt} with a[left..lt-1] < pivot, a[lt..gt] == pivot and
+	 *         a[gt+1..right] > pivot
+	 */
+	static int[] partition(int[] a, int left, int right, int pivot) {
+		int lt = left, i = left, gt = right;
+		while (i <= gt) {
+			if (a[i] < pivot)
+				QuickSort.swap(a, lt++, i++);
+			else if (a[i] > pivot)
+				QuickSort.swap(a, i, gt--);
+			else
+				i++;
+		}
+		return new int[] { lt, gt };
+	}
+
+	public static long select(long[] a, int k) {
+		return select(a, 0, a.length, k);
+	}
+
+	/** k-th smallest (0-based, from <= k < to) of a[from..to), placed at a[k] */
+	public static long select(long[] a, int from, int to, int k) {
+		SortAlgorithm.rangeCheck(a.length, from, to);
+		if (k < from || k >= to)
+			throw new IndexOutOfBoundsException("k(" + k + ") outside [" + from + ", " + to + ")");
+		int left = from, right = to - 1;
+		int budget = 2 * (31 - Integer.numberOfLeadingZeros(to - from));
+		while (right - left >= QuickSort.INSERTION_SORT_THRESHOLD) {
+			long pivot;
+			if (budget-- > 0) {
+				int mid = (left + right) >>> 1;
+				pivot = Math.max(Math.min(a[left], a[mid]), Math.min(Math.max(a[left], a[mid]), a[right]));
+			} else {
+				pivot = medianOfMedians(a, left, right);
+			}
+			int[] bounds = partition(a, left, right, pivot);
+			if (k < bounds[0])
+				right = bounds[0] - 1;
+			else if (k > bounds[1])
+				left = bounds[1] + 1;
+			else
+				return a[k];
+		}
+		Arrays.sort(a, left, right + 1);
+		return a[k];
+	}
+
+	/** Put the k smallest elements of a, in order, at a[0..k) */
+	public static void partialSort(long[] a, int k) {
+		if (k < 0 || k > a.length)
+			throw new IndexOutOfBoundsException("k(" + k + ") outside [0, " + a.length + "]");
+		if (k < a.length)
+			select(a, 0, a.length, k);
+		Arrays.sort(a, 0, k);
+	}
+
+	static long medianOfMedians(long[] a, int left, int right) {
+		int m = left;
+		for (int i = left; i <= right; i += 5) {
+			int end = Math.min(i + 4, right);
+			Arrays.sort(a, i, end + 1);
+			swap(a, m++, (i + end) >>> 1);
+		}
+		return select(a, left, m, (left + m - 1) >>> 1);
+	}
+
+	static int[] partition(long[] a, int left, int right, long pivot) {
+		int lt = left, i = left, gt = right;
+		while (i <= gt) {
+			if (a[i] < pivot)
+				swap(a, lt++, i++);
+			else if (a[i] > pivot)
+				swap(a, i, gt--);
+			else
+				i++;
+		}
+		return new int[] { lt, gt };
+	}
+
+	static void swap(long[] a, int x, int y) {
+		long temp = a[x];
+		a[x] = a[y];
+		a[y] = temp;
+	}
+
+	public static <T extends Comparable<? super T>> T select(T[] a, int k) {
+		return select(a, 0, a.length, k, Comparator.naturalOrder());
+	}
+
+	/** k-th smallest (0-based, from <= k < to) of a[from..to), placed at a[k] */
+	public static <T> T select(T[] a, int from, int to, int k, Comparator<? super T> c) {
+		SortAlgorithm.rangeCheck(a.length, from, to);
+		if (k < from || k >= to)
+			throw new IndexOutOfBoundsException("k(" + k + ") outside [" + from + ", " + to + ")");
+		int left = from, right = to - 1;
+		int budget = 2 * (31 - Integer.numberOfLeadingZeros(to - from));
+		while (right - left >= QuickSort.INSERTION_SORT_THRESHOLD) {
+			T pivot;
+			if (budget-- > 0) {
+				int mid = (left + right) >>> 1;
+				pivot = a[GenericSorts.medianOfThree(a, left, mid, right, c)];
+			} else {
+				pivot = medianOfMedians(a, left, right, c);
+			}
+			int[] bounds = partition(a, left, right, pivot, c);
+			if (k < bounds[0])
+				right = bounds[0] - 1;
+			else if (k > bounds[1])
+				left = bounds[1] + 1;
+			else
+				return a[k];
+		}
+		GenericSorts.insertionSort(a, left, right + 1, c);
+		return a[k];
+	}
+
+	public static <T extends Comparable<? super T>> void partialSort(T[] a, int k) {
+		partialSort(a, k, Comparator.naturalOrder());
+	}
+
+	/** Put the k smallest elements of a, in order, at a[0..k) */
+	public static <T> void partialSort(T[] a, int k, Comparator<? super T> c) {
+		if (k < 0 || k > a.length)
+			throw new IndexOutOfBoundsException("k(" + k + ") outside [0, " + a.length + "]");
+		if (k < a.length)
+			select(a, 0, a.length, k, c);
+		GenericSorts.mergeSort(a, 0, k, c);
+	}
+
+	static <T> T medianOfMedians(T[] a, int left, int right, Comparator<? super T> c) {
+		int m = left;
+		for (int i = left; i <= right; i += 5) {
+			int end = Math.min(i + 4, right);
+			GenericSorts.insertionSort(a, i, end + 1, c);
+			GenericSorts.swap(a, m++, (i + end) >>> 1);
+		}
+		return select(a, left, m, (left + m - 1) >>> 1, c);
+	}
+
+	static <T> int[] partition(T[] a, int left, int right, T pivot, Comparator<? super T> c) {
+		int lt = left, i = left, gt = right;
+		while (i <= gt) {
+			int cmp = c.compare(a[i], pivot);
+			if (cmp < 0)
+				GenericSorts.swap(a, lt++, i++);
+			else if (cmp > 0)
+				GenericSorts.swap(a, i, gt--);
+			else
+				i++;
+		}
+		return new int[] { lt, gt };
+	}
+}
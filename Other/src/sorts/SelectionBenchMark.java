@@ -0,0 +1,77 @@
+package sorts;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Median and top-100 of random ints: sorting everything against Selection
+ * and TopK (default 10M elements, or the size given as argument).
+ */
+public class SelectionBenchMark {
+
+	static final int ROUNDS = 5; // best of
+	static final int K = 100;
+
+	static long sink; // keep results alive so the JIT cannot drop the work
+
+	public static void main(String[] args) {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+		int[] values = new Random(42).ints(n).toArray();
+		int[] a = new int[n];
+
+		long sorted = Long.MAX_VALUE, selected = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.arraycopy(values, 0, a, 0, n);
+			long beginTime = System.nanoTime();
+			Arrays.sort(a);
+			sink += a[n / 2];
+			sorted = Math.min(sorted, System.nanoTime() - beginTime);
+
+			System.arraycopy(values, 0, a, 0, n);
+			beginTime = System.nanoTime();
+			sink += Selection.select(a, n / 2);
+			selected = Math.min(selected, System.nanoTime() - beginTime);
+		}
+		report("median: Arrays.sort", n, sorted);
+		report("median: Selection.select", n, selected);
+
+		long partial = Long.MAX_VALUE, streamed = Long.MAX_VALUE, boxed = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.arraycopy(values, 0, a, 0, n);
+			long beginTime = System.nanoTime();
+			Selection.partialSort(a, K);
+			sink += a[K - 1];
+			partial = Math.min(partial, System.nanoTime() - beginTime);
+
+			beginTime = System.nanoTime();
+			TopK.OfInt top = new TopK.OfInt(K);
+			for (int v : values)
+				top.offer(v);
+			sink += top.threshold();
+			streamed = Math.min(streamed, System.nanoTime() - beginTime);
+
+			beginTime = System.nanoTime();
+			PriorityQueue<Integer> queue = new PriorityQueue<>(K);
+			for (int v : values) {
+				if (queue.size() < K) {
+					queue.add(v);
+				} else if (v > queue.peek()) {
+					queue.poll();
+					queue.add(v);
+				}
+			}
+			sink += queue.peek();
+			boxed = Math.min(boxed, System.nanoTime() - beginTime);
+		}
+		report("top " + K + ": Arrays.sort", n, sorted);
+		report("top " + K + ": Selection.partialSort", n, partial);
+		report("top " + K + ": TopK.OfInt", n, streamed);
+		report("top " + K + ": PriorityQueue<Integer>", n, boxed);
+		System.out.println(sink);
+	}
+
+	static void report(String name, int n, long elapsedTime) {
+		System.out.printf("%-36s %,d elements: %8.1f ms%n", name, n, elapsedTime / 1e6);
+	}
+}
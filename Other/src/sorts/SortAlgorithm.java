@@ -0,0 +1,180 @@
+package sorts;
+
+import java.util.Comparator;
+
+/**
+ * Registry of the sorting algorithms in this package behind the Sorter
+ * interface. Algorithms that only sort whole arrays are given a copy of the
+ * requested range. COUNTING, BUCKET and RADIX need integer keys and refuse
+ * object arrays. PARALLEL_MERGE and PARALLEL_QUICK are parallel for int
+ * arrays only: object arrays get the sequential merge sort and quicksort of
+ * GenericSorts.
+ */
+public enum SortAlgorithm implements Sorter {
+	BUBBLE {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, BubbleSort::sort);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.bubbleSort(a, from, to, c);
+		}
+	},
+	BUCKET {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, x -> BucketSort.sort(x, x.length));
+		}
+	},
+	COMB {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, x -> CombSort.sort(x, x.length));
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.combSort(a, from, to, c);
+		}
+	},
+	COUNTING {
+		void sortRange(int[] a, int from, int to) {
+			CountingSort.sort(a, from, to);
+		}
+	},
+	HEAP {
+		void sortRange(int[] a, int from, int to) {
+			HeapSort.sort(a, from, to);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.heapSort(a, from, to, c);
+		}
+	},
+	INSERTION {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, InsertionSort::sort);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.insertionSort(a, from, to, c);
+		}
+	},
+	INTERCHANGE {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, InterchangeSort::sort);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.interchangeSort(a, from, to, c);
+		}
+	},
+	MERGE {
+		void sortRange(int[] a, int from, int to) {
+			MergeSort.sort(a, from, to - 1);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.mergeSort(a, from, to, c);
+		}
+	},
+	QUICK {
+		void sortRange(int[] a, int from, int to) {
+			QuickSort.sort(a, from, to - 1);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.quickSort(a, from, to, c);
+		}
+	},
+	DUAL_PIVOT_QUICK {
+		void sortRange(int[] a, int from, int to) {
+			QuickSort.dualPivotSort(a, from, to - 1);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.quickSort(a, from, to, c);
+		}
+	},
+	RADIX {
+		void sortRange(int[] a, int from, int to) {
+			RaddixSort.sort(a, from, to);
+		}
+	},
+	SELECTION {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, SelectionSort::sort);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.selectionSort(a, from, to, c);
+		}
+	},
+	SHELL {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, ShellSort::sort);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.shellSort(a, from, to, c);
+		}
+	},
+	PARALLEL_MERGE {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, ParallelMergeSort::sort);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.mergeSort(a, from, to, c);
+		}
+	},
+	PARALLEL_QUICK {
+		void sortRange(int[] a, int from, int to) {
+			onCopy(a, from, to, ParallelQuickSort::sort);
+		}
+
+		<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+			GenericSorts.quickSort(a, from, to, c);
+		}
+	};
+
+	abstract void sortRange(int[] a, int from, int to);
+
+	<T> void sortRange(T[] a, int from, int to, Comparator<? super T> c) {
+		throw new UnsupportedOperationException(this + " only sorts integer keys");
+	}
+
+	@Override
+	public void sort(int[] a, int fromIndex, int toIndex) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		if (toIndex - fromIndex > 1)
+			sortRange(a, fromIndex, toIndex);
+	}
+
+	@Override
+	public <T> void sort(T[] a, int fromIndex, int toIndex, Comparator<? super T> c) {
+		rangeCheck(a.length, fromIndex, toIndex);
+		if (toIndex - fromIndex > 1)
+			sortRange(a, fromIndex, toIndex, c);
+	}
+
+	static void rangeCheck(int length, int fromIndex, int toIndex) {
+		if (fromIndex > toIndex)
+			throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		if (fromIndex < 0 || toIndex > length)
+			throw new ArrayIndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") of length " + length);
+	}
+
+	interface WholeArraySort {
+		void sort(int[] a);
+	}
+
+	/** Run an algorithm that only sorts whole arrays on a[from..to) */
+	static void onCopy(int[] a, int from, int to, WholeArraySort sort) {
+		if (from == 0 && to == a.length) {
+			sort.sort(a);
+			return;
+		}
+		int[] range = new int[to - from];
+		System.arraycopy(a, from, range, 0, range.length);
+		sort.sort(range);
+		System.arraycopy(range, 0, a, from, range.length);
+	}
+}
@@ -0,0 +1,317 @@
+package sorts;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Benchmark harness for every Sorter in this package (all SortAlgorithm
+ * entries plus HybridSorter) over several input distributions and sizes.
+ *
+ * Each case is warmed up, then measured for a number of iterations; an
+ * iteration repeats the sort on fresh copies of the input until it has run
+ * for at least MIN_ITERATION_TIME. Besides time per sort it records bytes
+ * allocated per sort by the benchmark thread and GC count/time, and writes
+ * everything as JSON (same layout as JMH's -rf json) for regression tracking.
+ *
+ * Arguments (all optional), e.g.
+ * sizes=1000,100000 distributions=RANDOM,ZIPF algorithms=QUICK,HYBRID
+ * warmup=2 iterations=5 quadraticLimit=10000 out=sort-benchmark.json
+ */
+public class SortBenchMark {
+
+	static final long MIN_ITERATION_TIME = 100000000L; // 100 ms
+
+	enum Distribution {
+		RANDOM, SORTED, REVERSE, FEW_UNIQUE, ORGAN_PIPE, ZIPF;
+
+		int[] generate(int n, Random random) {
+			int[] a = new int[n];
+			switch (this) {
+				case RANDOM:
+					for (int i = 0; i < n; i++)
+						a[i] = random.nextInt();
+					break;
+				case SORTED:
+					for (int i = 0; i < n; i++)
+						a[i] = i;
+					break;
+				case REVERSE:
+					for (int i = 0; i < n; i++)
+						a[i] = n - i;
+					break;
+				case FEW_UNIQUE:
+					for (int i = 0; i < n; i++)
+						a[i] = random.nextInt(16);
+					break;
+				case ORGAN_PIPE:
+					for (int i = 0; i < n; i++)
+						a[i] = (i < n / 2) ? i : n - i;
+					break;
+				case ZIPF:
+					zipf(a, random);
+					break;
+			}
+			return a;
+		}
+
+		/** Values 1..k drawn with probability proportional to 1/rank */
+		static void zipf(int[] a, Random random) {
+			int k = Math.max(1, Math.min(a.length, 1000000));
+			double[] cumulative = new double[k];
+			double sum = 0;
+			for (int rank = 1; rank <= k; rank++) {
+				sum += 1.0 / rank;
+				cumulative[rank - 1] = sum;
+			}
+			for (int i = 0; i < a.length; i++) {
+				int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+				a[i] = (index >= 0 ? index : -index - 1) + 1;
+			}
+		}
+	}
+
+	/** One measured (algorithm, distribution, size) case */
+	static class Result {
+		String algorithm, distribution;
+		int size;
+		double[] msPerOp;
+		double bytesPerOp, gcCount, gcTimeMs;
+		String skipped;
+
+		double mean() {
+			double sum = 0;
+			for (double v : msPerOp)
+				sum += v;
+			return sum / msPerOp.length;
+		}
+
+		/** Half-width of the 99.9% confidence interval of the mean, as JMH's scoreError */
+		double error() {
+			int n = msPerOp.length;
+			if (n < 2)
+				return 0;
+			double mean = mean(), sum = 0;
+			for (double v : msPerOp)
+				sum += (v - mean) * (v - mean);
+			return studentT999(n - 1) * Math.sqrt(sum / (n - 1) / n);
+		}
+	}
+
+	// Two-sided 99.9% quantiles of Student's t distribution for 1 to 30 degrees of freedom
+	private static final double[] T_999 = { 636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781,
+			4.587, 4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850, 3.819, 3.792, 3.768,
+			3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646 };
+
+	/** t such that P(|T| > t) = 0.001 for df degrees of freedom */
+	static double studentT999(int df) {
+		if (df <= T_999.length)
+			return T_999[df - 1];
+		// Cornish-Fisher expansion around the normal quantile, within 0.001 above 30
+		double z = 3.2905267314919255, z2 = z * z;
+		return z + z * (z2 + 1) / (4 * df) + z * ((5 * z2 + 16) * z2 + 3) / (96.0 * df * df)
+				+ z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / (384.0 * df * df * df);
+	}
+
+	static final String USAGE = "Arguments: [sizes=1000,100000] [distributions=RANDOM,ZIPF] "
+			+ "[algorithms=QUICK,HYBRID] [warmup=2] [iterations=5] [quadraticLimit=10000] [out=sort-benchmark.json]";
+
+	public static void main(String[] args) throws IOException {
+		int[] sizes = { 1000, 10000, 100000, 1000000, 10000000 };
+		List<Distribution> distributions = Arrays.asList(Distribution.values());
+		List<String> algorithms = new ArrayList<>();
+		for (SortAlgorithm algorithm : SortAlgorithm.values())
+			algorithms.add(algorithm.name());
+		algorithms.add("HYBRID");
+		int warmup = 2, iterations = 5, quadraticLimit = 10000;
+		String out = "sort-benchmark.json";
+
+		for (String arg : args) {
+			String[] kv = arg.split("=", 2);
+			if (kv.length != 2) {
+				System.err.println("Not name=value: " + arg);
+				System.err.println(USAGE);
+				return;
+			}
+			String[] values = kv[1].split(",");
+			switch (kv[0]) {
+				case "sizes":
+					sizes = new int[values.length];
+					for (int i = 0; i < values.length; i++)
+						sizes[i] = (int) Double.parseDouble(values[i]);
+					break;
+				case "distributions":
+					distributions = new ArrayList<>();
+					for (String v : values)
+						distributions.add(Distribution.valueOf(v));
+					break;
+				case "algorithms":
+					algorithms = Arrays.asList(values);
+					break;
+				case "warmup":
+					warmup = Integer.parseInt(kv[1]);
+					break;
+				case "iterations":
+					iterations = Integer.parseInt(kv[1]);
+					break;
+				case "quadraticLimit":
+					quadraticLimit = (int) Double.parseDouble(kv[1]);
+					break;
+				case "out":
+					out = kv[1];
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+		}
+
+		List<Result> results = new ArrayList<>();
+		System.out.printf("%-18s %-11s %10s %14s %10s %14s %8s%n", "algorithm", "distribution", "size", "ms/op",
+				"error", "bytes/op", "gc");
+		for (String algorithm : algorithms) {
+			Sorter sorter = algorithm.equals("HYBRID") ? new HybridSorter() : SortAlgorithm.valueOf(algorithm);
+			for (Distribution distribution : distributions) {
+				for (int size : sizes) {
+					Result result = new Result();
+					result.algorithm = algorithm;
+					result.distribution = distribution.name();
+					result.size = size;
+					result.skipped = skipReason(sorter, size, quadraticLimit);
+					if (result.skipped == null) {
+						try {
+							measure(sorter, distribution.generate(size, new Random(size)), warmup, iterations, result);
+						} catch (StackOverflowError | RuntimeException e) {
+							// e.g. the plain QuickSort degrades to O(n) recursion depth on organ-pipe input
+							result.skipped = "failed: " + e;
+						}
+					}
+					results.add(result);
+					if (result.skipped != null)
+						System.out.printf("%-18s %-11s %10d skipped: %s%n", algorithm, distribution, size,
+								result.skipped);
+					else
+						System.out.printf("%-18s %-11s %10d %14.4f %10.4f %14.0f %8.1f%n", algorithm, distribution,
+								size, result.mean(), result.error(), result.bytesPerOp, result.gcCount);
+				}
+			}
+		}
+		try (Writer writer = new FileWriter(out)) {
+			writeJson(results, warmup, iterations, writer);
+		}
+		System.out.println("Results written to " + out);
+	}
+
+	static String skipReason(Sorter sorter, int size, int quadraticLimit) {
+		if (sorter == SortAlgorithm.BUBBLE || sorter == SortAlgorithm.INSERTION || sorter == SortAlgorithm.INTERCHANGE
+				|| sorter == SortAlgorithm.SELECTION) {
+			if (size > quadraticLimit)
+				return "O(n^2) above quadraticLimit";
+		}
+		return null;
+	}
+
+	static void measure(Sorter sorter, int[] data, int warmup, int iterations, Result result) {
+		int[] a = new int[data.length];
+		// Check the result once before timing anything
+		System.arraycopy(data, 0, a, 0, data.length);
+		sorter.sort(a);
+		for (int i = 1; i < a.length; i++)
+			if (a[i - 1] > a[i])
+				throw new IllegalStateException(result.algorithm + " did not sort " + result.distribution);
+
+		for (int i = 0; i < warmup; i++)
+			iteration(sorter, data, a);
+		result.msPerOp = new double[iterations];
+		long ops = 0, gcCountBefore = gcCount(), gcTimeBefore = gcTime(), bytesBefore = allocatedBytes();
+		for (int i = 0; i < iterations; i++) {
+			long[] timeAndOps = iteration(sorter, data, a);
+			result.msPerOp[i] = timeAndOps[0] / 1e6 / timeAndOps[1];
+			ops += timeAndOps[1];
+		}
+		result.bytesPerOp = (double) (allocatedBytes() - bytesBefore) / ops;
+		result.gcCount = gcCount() - gcCountBefore;
+		result.gcTimeMs = gcTime() - gcTimeBefore;
+	}
+
+	/** @return {nanoseconds spent sorting, number of sorts} */
+	static long[] iteration(Sorter sorter, int[] data, int[] a) {
+		long elapsedTime = 0, ops = 0;
+		while (elapsedTime < MIN_ITERATION_TIME) {
+			System.arraycopy(data, 0, a, 0, data.length);
+			long beginTime = System.nanoTime();
+			sorter.sort(a);
+			elapsedTime += System.nanoTime() - beginTime;
+			ops++;
+		}
+		return new long[] { elapsedTime, ops };
+	}
+
+	/** Bytes allocated by this thread (work done by fork/join workers is not included) */
+	static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return 0;
+	}
+
+	static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, gc.getCollectionCount());
+		return count;
+	}
+
+	static long gcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			time += Math.max(0, gc.getCollectionTime());
+		return time;
+	}
+
+	static void writeJson(List<Result> results, int warmup, int iterations, Writer writer) throws IOException {
+		StringBuilder sb = new StringBuilder("[\n");
+		for (int r = 0; r < results.size(); r++) {
+			Result result = results.get(r);
+			sb.append("  {\n");
+			sb.append("    \"benchmark\" : \"sorts.SortBenchMark.").append(result.algorithm).append("\",\n");
+			sb.append("    \"mode\" : \"avgt\",\n");
+			sb.append("    \"warmupIterations\" : ").append(warmup).append(",\n");
+			sb.append("    \"measurementIterations\" : ").append(iterations).append(",\n");
+			sb.append("    \"params\" : { \"distribution\" : \"").append(result.distribution)
+					.append("\", \"size\" : \"").append(result.size).append("\" },\n");
+			if (result.skipped != null) {
+				sb.append("    \"skipped\" : \"").append(result.skipped).append("\"\n");
+			} else {
+				sb.append("    \"primaryMetric\" : {\n");
+				sb.append("      \"score\" : ").append(number(result.mean())).append(",\n");
+				sb.append("      \"scoreError\" : ").append(number(result.error())).append(",\n");
+				sb.append("      \"scoreUnit\" : \"ms/op\",\n");
+				sb.append("      \"rawData\" : [ [ ");
+				for (int i = 0; i < result.msPerOp.length; i++)
+					sb.append(i > 0 ? ", " : "").append(number(result.msPerOp[i]));
+				sb.append(" ] ]\n    },\n");
+				sb.append("    \"secondaryMetrics\" : {\n");
+				sb.append("      \"gc.alloc.rate.norm\" : { \"score\" : ").append(number(result.bytesPerOp))
+						.append(", \"scoreUnit\" : \"B/op\" },\n");
+				sb.append("      \"gc.count\" : { \"score\" : ").append(number(result.gcCount))
+						.append(", \"scoreUnit\" : \"counts\" },\n");
+				sb.append("      \"gc.time\" : { \"score\" : ").append(number(result.gcTimeMs))
+						.append(", \"scoreUnit\" : \"ms\" }\n");
+				sb.append("    }\n");
+			}
+			sb.append(r < results.size() - 1 ? "  },\n" : "  }\n");
+		}
+		writer.write(sb.append("]\n").toString());
+	}
+
+	static String number(double value) {
+		return String.format(Locale.ROOT, "%.6f", value);
+	}
+}
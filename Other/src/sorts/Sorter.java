@@ -0,0 +1,33 @@
+package sorts;
+
+import java.util.Comparator;
+
+/**
+ * Common entry point for the sorting algorithms of this package. Ranges are
+ * half-open: [fromIndex, toIndex).
+ * The registered algorithms are listed in SortAlgorithm; HybridSorter picks
+ * one of them from the input.
+ */
+public interface Sorter {
+
+	void sort(int[] a, int fromIndex, int toIndex);
+
+	/**
+	 * Sort objects with the given comparator.
+	 *
+	 * @throws UnsupportedOperationException if the algorithm needs integer keys
+	 */
+	<T> void sort(T[] a, int fromIndex, int toIndex, Comparator<? super T> c);
+
+	default void sort(int[] a) {
+		sort(a, 0, a.length);
+	}
+
+	default <T> void sort(T[] a, Comparator<? super T> c) {
+		sort(a, 0, a.length, c);
+	}
+
+	default <T extends Comparable<? super T>> void sort(T[] a) {
+		sort(a, 0, a.length, Comparator.<T> naturalOrder());
+	}
+}
@@ -0,0 +1,173 @@
+package sorts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Streaming top-K: keeps the k largest values offered so far in a bounded
+ * min-heap. Its root is the smallest value kept, so a value that cannot enter
+ * the top k is rejected with one comparison, and memory stays O(k) however
+ * long the stream is. OfInt and OfLong do the same without boxing.
+ */
+public class TopK<T> {
+
+	private final int k;
+	private final Comparator<? super T> comparator;
+	private final PriorityQueue<T> heap;
+
+	public TopK(int k, Comparator<? super T> comparator) {
+		if (k < 1)
+			throw new IllegalArgumentException("k < 1: " + k);
+		this.k = k;
+		this.comparator = comparator;
+		heap = new PriorityQueue<>(k, comparator);
+	}
+
+	public static <T extends Comparable<? super T>> TopK<T> of(int k) {
+		return new TopK<>(k, Comparator.naturalOrder());
+	}
+
+	public static void main(String[] args) {
+		TopK.OfInt top = new TopK.OfInt(3);
+		for (int v : new int[] { 4, 2, 5, 10, 7, 1, 15, 74, 13, 21 })
+			top.offer(v);
+		System.out.println(Arrays.toString(top.toArray()));
+		TopK<String> words = TopK.of(2);
+		for (String s : "pear apple fig banana cherry".split(" "))
+			words.offer(s);
+		System.out.println(words.toList());
+	}
+
+	/** @return true if value is now among the k largest */
+	public boolean offer(T value) {
+		if (heap.size() < k)
+			return heap.add(value);
+		if (comparator.compare(value, heap.peek()) <= 0)
+			return false;
+		heap.poll();
+		return heap.add(value);
+	}
+
+	/** Smallest value kept, i.e. the one the next value has to beat; null if empty */
+	public T threshold() {
+		return heap.peek();
+	}
+
+	public int size() {
+		return heap.size();
+	}
+
+	/** The values kept, largest first */
+	public List<T> toList() {
+		List<T> list = new ArrayList<>(heap);
+		list.sort(comparator.reversed());
+		return list;
+	}
+
+	/** Top-K of primitive ints, on an IntHeap */
+	public static class OfInt {
+		private final int k;
+		private final IntHeap heap;
+		private boolean full;
+		private int min; // heap.peek(), cached for the hot path
+
+		public OfInt(int k) {
+			if (k < 1)
+				throw new IllegalArgumentException("k < 1: " + k);
+			this.k = k;
+			heap = new IntHeap(k);
+		}
+
+		public boolean offer(int value) {
+			if (full) {
+				if (value <= min)
+					return false; // the common case once the heap is full
+				heap.replaceTop(value);
+			} else {
+				heap.add(value);
+				full = heap.size() == k;
+			}
+			min = heap.peek();
+			return true;
+		}
+
+		/** Smallest value kept; NoSuchElementException if empty */
+		public int threshold() {
+			return heap.peek();
+		}
+
+		public int size() {
+			return heap.size();
+		}
+
+		/** The values kept, largest first */
+		public int[] toArray() {
+			int[] a = heap.toArray();
+			QuickSort.dualPivotSort(a, 0, a.length - 1);
+			HybridSorter.reverse(a, 0, a.length - 1);
+			return a;
+		}
+	}
+
+	/** Top-K of primitive longs, on a binary min-heap in a long[] */
+	public static class OfLong {
+		private final long[] heap;
+		private int size;
+
+		public OfLong(int k) {
+			if (k < 1)
+				throw new IllegalArgumentException("k < 1: " + k);
+			heap = new long[k];
+		}
+
+		public boolean offer(long value) {
+			if (size < heap.length) {
+				int i = size++;
+				while (i > 0 && heap[(i - 1) >> 1] > value) {
+					heap[i] = heap[(i - 1) >> 1];
+					i = (i - 1) >> 1;
+				}
+				heap[i] = value;
+				return true;
+			}
+			if (value <= heap[0])
+				return false;
+			// Replace the root and sift it down
+			int i = 0, child;
+			while ((child = 2 * i + 1) < size) {
+				if (child + 1 < size && heap[child + 1] < heap[child])
+					child++;
+				if (value <= heap[child])
+					break;
+				heap[i] = heap[child];
+				i = child;
+			}
+			heap[i] = value;
+			return true;
+		}
+
+		/** Smallest value kept; NoSuchElementException if empty */
+		public long threshold() {
+			if (size == 0)
+				throw new NoSuchElementException();
+			return heap[0];
+		}
+
+		public int size() {
+			return size;
+		}
+
+		/** The values kept, largest first */
+		public long[] toArray() {
+			long[] a = Arrays.copyOf(heap, size);
+			Arrays.sort(a);
+			for (int i = 0, j = size - 1; i < j; i++, j--)
+				Selection.swap(a, i, j);
+			return a;
+		}
+	}
+}
@@ -6,39 +6,56 @@ import java.awt.Graphics;
 import ui.GameMain;
 
 /**
- * The Board class models the ROWS-by-COLS game-board.
+ * The Board class models the rows-by-cols game-board of an m,n,k-game: the
+ * first player with winLength seeds in a row, column or diagonal wins.
+ *
+ * The game state is an immutable Position; the Board holds the current one
+ * and its Cells only read and paint it. Engines take position() and search
+ * copies of it, never the Cells.
  */
 public class Board {
 	public Cell[][] cells;
+	public final int rows, cols, winLength;
+	private volatile Position position;
 
-	public Board() {
-		cells = new Cell[GameMain.ROWS][GameMain.COLS];
-		for (int row = 0; row < GameMain.ROWS; ++row) {
-			for (int col = 0; col < GameMain.COLS; ++col) {
-				cells[row][col] = new Cell(row, col); // allocate element of array
+	public Board(int rows, int cols, int winLength) {
+		if (winLength < 1 || winLength > Math.max(rows, cols))
+			throw new IllegalArgumentException("Invalid win length " + winLength);
+		this.rows = rows;
+		this.cols = cols;
+		this.winLength = winLength;
+		position = new Position(rows, cols, winLength);
+		cells = new Cell[rows][cols];
+		for (int row = 0; row < rows; ++row) {
+			for (int col = 0; col < cols; ++col) {
+				cells[row][col] = new Cell(this, row, col); // allocate element of array
 			}
 		}
 	}
 
+	/** The classic 3x3 Tic-Tac-Toe board */
+	public Board() {
+		this(GameMain.ROWS, GameMain.COLS, 3);
+	}
+
 	/** Initialize (or re-initialize) the game board */
 	public void init() {
-		for (int row = 0; row < GameMain.ROWS; ++row) {
-			for (int col = 0; col < GameMain.COLS; ++col) {
-				cells[row][col].clear(); // clear the cell content
-			}
-		}
+		position = new Position(rows, cols, winLength);
+	}
+
+	/** The current game state; it never changes, later moves make new ones */
+	public Position position() {
+		return position;
+	}
+
+	/** Put seed on the empty cell (row, col) */
+	public void play(int row, int col, Seed seed) {
+		position = position.play(row, col, seed);
 	}
 
 	/** Return true if it is a draw (i.e., no more EMPTY cell) */
 	public boolean isDraw() {
-		for (int row = 0; row < GameMain.ROWS; ++row) {
-			for (int col = 0; col < GameMain.COLS; ++col) {
-				if (cells[row][col].content == Seed.EMPTY) {
-					return false; // an empty seed found, not a draw, exit
-				}
-			}
-		}
-		return true; // no empty cell, it's a draw
+		return position.isFull();
 	}
 
 	/**
@@ -46,32 +63,25 @@ public class Board {
 	 * (seedRow, seedCol)
 	 */
 	public boolean hasWon(Seed seed, int seedRow, int seedCol) {
-		return (cells[seedRow][0].content == seed // 3-in-the-row
-				&& cells[seedRow][1].content == seed && cells[seedRow][2].content == seed
-				|| cells[0][seedCol].content == seed // 3-in-the-column
-						&& cells[1][seedCol].content == seed && cells[2][seedCol].content == seed
-				|| seedRow == seedCol // 3-in-the-diagonal
-						&& cells[0][0].content == seed && cells[1][1].content == seed && cells[2][2].content == seed
-				|| seedRow + seedCol == 2 // 3-in-the-opposite-diagonal
-						&& cells[0][2].content == seed && cells[1][1].content == seed && cells[2][0].content == seed);
+		return position.hasWon(seed, seedRow, seedCol);
 	}
 
 	/** Paint itself on the graphics canvas, given the Graphics context */
 	public void paint(Graphics g) {
 		// Draw the grid-lines
 		g.setColor(Color.GRAY);
-		for (int row = 1; row < GameMain.ROWS; ++row) {
-			g.fillRoundRect(0, GameMain.CELL_SIZE * row - GameMain.GRID_WIDHT_HALF, GameMain.CANVAS_WIDTH - 1,
+		for (int row = 1; row < rows; ++row) {
+			g.fillRoundRect(0, GameMain.CELL_SIZE * row - GameMain.GRID_WIDHT_HALF, GameMain.CELL_SIZE * cols - 1,
 					GameMain.GRID_WIDTH, GameMain.GRID_WIDTH, GameMain.GRID_WIDTH);
 		}
-		for (int col = 1; col < GameMain.COLS; ++col) {
+		for (int col = 1; col < cols; ++col) {
 			g.fillRoundRect(GameMain.CELL_SIZE * col - GameMain.GRID_WIDHT_HALF, 0, GameMain.GRID_WIDTH,
-					GameMain.CANVAS_HEIGHT - 1, GameMain.GRID_WIDTH, GameMain.GRID_WIDTH);
+					GameMain.CELL_SIZE * rows - 1, GameMain.GRID_WIDTH, GameMain.GRID_WIDTH);
 		}
 
 		// Draw all the cells
-		for (int row = 0; row < GameMain.ROWS; ++row) {
-			for (int col = 0; col < GameMain.COLS; ++col) {
+		for (int row = 0; row < rows; ++row) {
+			for (int col = 0; col < cols; ++col) {
 				cells[row][col].paint(g); // ask the cell to paint itself
 			}
 		}
@@ -8,23 +8,25 @@ import java.awt.Graphics2D;
 import ui.GameMain;
 
 /**
- * The Cell class models each individual cell of the game board.
+ * The Cell class models each individual cell of the game board. Its content
+ * is read from the board's current Position.
  */
 public class Cell {
-	public Seed content;
+	private final Board board;
 	int row, col;
 
-	public Cell(int row, int col) {
+	public Cell(Board board, int row, int col) {
+		this.board = board;
 		this.row = row;
 		this.col = col;
-		clear();
 	}
 
-	public void clear() {
-		content = Seed.EMPTY;
+	public Seed content() {
+		return board.position().get(row, col);
 	}
 
 	public void paint(Graphics g) {
+		Seed content = content();
 		Graphics2D g2d = (Graphics2D) g;
 		g2d.setStroke(new BasicStroke(GameMain.SYMBOL_STROKE_WIDTH, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
 		// Draw the Seed if it is not empty
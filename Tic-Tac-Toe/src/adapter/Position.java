@@ -0,0 +1,148 @@
+package adapter;
+
+import java.util.Arrays;
+
+/**
+ * Immutable game state of an m,n,k-game, independent of Swing. Cells are
+ * packed two bits each (the Seed ordinal), sixteen to an int, so a 3x3 board
+ * fits in one int and a 15x15 board in fifteen. play() returns a new Position
+ * and leaves this one unchanged, so any number of threads can search from the
+ * same Position without locking.
+ */
+public final class Position {
+	private static final Seed[] SEEDS = Seed.values();
+
+	public final int rows, cols, winLength;
+	private final int[] words;
+	private final int filled; // number of non-empty cells
+
+	/** The empty rows-by-cols board, winLength in a row to win */
+	public Position(int rows, int cols, int winLength) {
+		if (rows < 1 || cols < 1)
+			throw new IllegalArgumentException("Invalid size " + rows + "x" + cols);
+		if (winLength < 1 || winLength > Math.max(rows, cols))
+			throw new IllegalArgumentException("Invalid win length " + winLength);
+		this.rows = rows;
+		this.cols = cols;
+		this.winLength = winLength;
+		words = new int[(rows * cols + 15) >>> 4];
+		filled = 0;
+	}
+
+	private Position(Position from, int[] words, int filled) {
+		rows = from.rows;
+		cols = from.cols;
+		winLength = from.winLength;
+		this.words = words;
+		this.filled = filled;
+	}
+
+	public Seed get(int row, int col) {
+		return SEEDS[code(row * cols + col)];
+	}
+
+	private int code(int cell) {
+		return (words[cell >>> 4] >>> ((cell & 15) << 1)) & 3;
+	}
+
+	/** This position with seed put on (row, col), which must be empty */
+	public Position play(int row, int col, Seed seed) {
+		if (row < 0 || row >= rows || col < 0 || col >= cols)
+			throw new IndexOutOfBoundsException("(" + row + ", " + col + ")");
+		int cell = row * cols + col;
+		if (code(cell) != 0)
+			throw new IllegalArgumentException("Cell (" + row + ", " + col + ") is not empty");
+		if (seed == Seed.EMPTY)
+			return this;
+		int[] copy = words.clone();
+		copy[cell >>> 4] |= seed.ordinal() << ((cell & 15) << 1);
+		return new Position(this, copy, filled + 1);
+	}
+
+	/** True if seed has winLength in a row through (row, col) */
+	public boolean hasWon(Seed seed, int row, int col) {
+		int code = seed.ordinal();
+		return countLine(code, row, col, 0, 1) >= winLength // row
+				|| countLine(code, row, col, 1, 0) >= winLength // column
+				|| countLine(code, row, col, 1, 1) >= winLength // diagonal
+				|| countLine(code, row, col, 1, -1) >= winLength; // opposite diagonal
+	}
+
+	/** Length of the run of code through (row, col) in direction (dRow, dCol) */
+	private int countLine(int code, int row, int col, int dRow, int dCol) {
+		int count = 1;
+		for (int r = row + dRow, c = col + dCol; inside(r, c) && code(r * cols + c) == code; r += dRow, c += dCol)
+			count++;
+		for (int r = row - dRow, c = col - dCol; inside(r, c) && code(r * cols + c) == code; r -= dRow, c -= dCol)
+			count++;
+		return count;
+	}
+
+	private boolean inside(int row, int col) {
+		return row >= 0 && row < rows && col >= 0 && col < cols;
+	}
+
+	public boolean isFull() {
+		return filled == rows * cols;
+	}
+
+	/** Number of seeds on the board */
+	public int filled() {
+		return filled;
+	}
+
+	/** Bit cell (row * cols + col) set for every cell holding seed; boards up to 64 cells */
+	public long mask(Seed seed) {
+		if (rows * cols > 64)
+			throw new UnsupportedOperationException("More than 64 cells");
+		long mask = 0;
+		int code = seed.ordinal();
+		for (int cell = 0; cell < rows * cols; cell++)
+			if (code(cell) == code)
+				mask |= 1L << cell;
+		return mask;
+	}
+
+	/** 64-bit hash of the board and its dimensions, never 0 */
+	public long key() {
+		long h = 0x9E3779B97F4A7C15L * ((rows * 31 + cols) * 31 + winLength);
+		for (int word : words) {
+			h = (h ^ (word & 0xFFFFFFFFL)) * 0xBF58476D1CE4E5B9L;
+			h ^= h >>> 31;
+		}
+		return h == 0 ? 1 : h;
+	}
+
+	/** Seed whose turn it is; CROSS plays first */
+	public Seed sideToMove() {
+		int crosses = 0;
+		for (int cell = 0; cell < rows * cols; cell++)
+			if (code(cell) == 1)
+				crosses++;
+		return crosses * 2 > filled ? Seed.NOUGHT : Seed.CROSS;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Position))
+			return false;
+		Position p = (Position) o;
+		return rows == p.rows && cols == p.cols && winLength == p.winLength && Arrays.equals(words, p.words);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(words) * 31 + rows * cols;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int row = 0; row < rows; ++row) {
+			for (int col = 0; col < cols; ++col)
+				sb.append(".XO".charAt(code(row * cols + col)));
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
@@ -1,20 +1,21 @@
 package ai;
 
 import adapter.Board;
-import adapter.Cell;
+import adapter.Position;
 import adapter.Seed;
-import ui.GameMain;
 
 public abstract class AIPlayer {
-	protected int ROWS = GameMain.ROWS; // number of rows
-	protected int COLS = GameMain.COLS; // number of columns
+	protected int ROWS; // number of rows
+	protected int COLS; // number of columns
 
-	protected Cell[][] cells; // the board's ROWS-by-COLS array of Cells
+	protected final Board board; // the game-board; read it through position()
 	protected Seed mySeed; // computer's seed
 	protected Seed oppSeed; // opponent's seed
 
 	public AIPlayer(Board board) {
-		cells = board.cells;
+		this.board = board;
+		ROWS = board.rows;
+		COLS = board.cols;
 	}
 
 	public void setSeed(Seed seed) {
@@ -22,6 +23,16 @@ public abstract class AIPlayer {
 		oppSeed = (mySeed == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
 	}
 
+	/** Snapshot of the board to search; safe to use from any thread */
+	protected Position position() {
+		return board.position();
+	}
+
 	/** Abstract method to get next move. Return int[2] of {row, col} */
 	abstract int[] move(); // to be implemented by subclasses
+
+	/** Positions (or playouts) searched by the last move(), 0 if not counted */
+	long nodes() {
+		return 0;
+	}
 }
@@ -0,0 +1,195 @@
+package ai;
+
+import adapter.Board;
+import adapter.Position;
+
+/**
+ * AIPlayer that plays perfectly. The board is kept as two 9-bit masks (bit
+ * row * 3 + col), one per player, and the whole game tree is searched with
+ * negamax and alpha-beta pruning.
+ *
+ * Searched positions are cached in a transposition table indexed by the
+ * base-3 number of the board, reduced over the 8 rotations and reflections
+ * so that symmetric positions share one entry. When the class is loaded every
+ * position reachable from the empty board is solved once and its best move
+ * stored, so move() is a single table lookup.
+ */
+public class AIPlayerBitboard extends AIPlayer {
+
+	static final int FULL = 0b111111111;
+	static final int[] WINNING_PATTERNS = { 0b111000000, 0b000111000, 0b000000111, // rows
+			0b100100100, 0b010010010, 0b001001001, // cols
+			0b100010001, 0b001010100 // diagonals
+	};
+	// Centre first, then corners, then edges: strong moves first prune the most
+	static final int[] MOVE_ORDER = { 4, 0, 2, 6, 8, 1, 3, 5, 7 };
+
+	// Transposition table flags
+	private static final byte UNKNOWN = 0, EXACT = 1, LOWER = 2, UPPER = 3;
+
+	static final boolean[] WON = new boolean[1 << 9]; // WON[mask]: mask holds a line
+	static final int[] BASE3 = new int[1 << 9]; // sum of 3^cell over the cells of mask
+	static final int[][] SYMMETRY = new int[8][1 << 9]; // mask under each dihedral transform
+
+	private static final byte[] ttValue = new byte[19683]; // 3^9 boards
+	private static final byte[] ttFlag = new byte[19683];
+	private static final byte[] bestMove = new byte[19683]; // cell + 1, 0 if not solved
+
+	static {
+		for (int mask = 0; mask < 1 << 9; mask++) {
+			for (int pattern : WINNING_PATTERNS)
+				WON[mask] |= (mask & pattern) == pattern;
+			int power = 1;
+			for (int cell = 0; cell < 9; cell++, power *= 3)
+				if ((mask & (1 << cell)) != 0)
+					BASE3[mask] += power;
+		}
+		for (int t = 0; t < 8; t++) {
+			for (int mask = 0; mask < 1 << 9; mask++) {
+				int image = 0;
+				for (int cell = 0; cell < 9; cell++)
+					if ((mask & (1 << cell)) != 0)
+						image |= 1 << transform(t, cell / 3, cell % 3);
+				SYMMETRY[t][mask] = image;
+			}
+		}
+		solve(0, 0);
+	}
+
+	public AIPlayerBitboard(Board board) {
+		super(board);
+	}
+
+	/**
+	 * Read the board into masks and look the move up
+	 *
+	 * @return int[2] of {row, col}
+	 */
+	@Override
+	int[] move() {
+		Position position = position();
+		int cell = bestMove((int) position.mask(mySeed), (int) position.mask(oppSeed));
+		return new int[] { cell / 3, cell % 3 };
+	}
+
+	/**
+	 * Best cell for the player to move (me), or -1 if the game is over. Boards
+	 * that cannot be reached in a real game are searched on demand.
+	 */
+	public static int bestMove(int me, int opp) {
+		int move = bestMove[BASE3[me] + 2 * BASE3[opp]];
+		if (move > 0)
+			return move - 1;
+		if (WON[me] || WON[opp] || (me | opp) == FULL)
+			return -1;
+		synchronized (ttValue) {
+			return searchBestMove(me, opp);
+		}
+	}
+
+	/** Game value for the player to move: > 0 win, 0 draw, < 0 loss */
+	public static int evaluate(int me, int opp) {
+		synchronized (ttValue) {
+			return negamax(me, opp, -10, 10);
+		}
+	}
+
+	/** Cell of (row, col) after transform t: 4 rotations, each optionally mirrored */
+	private static int transform(int t, int row, int col) {
+		for (int i = 0; i < (t & 3); i++) { // rotate 90 degrees
+			int temp = row;
+			row = col;
+			col = 2 - temp;
+		}
+		if (t >= 4)
+			col = 2 - col;
+		return row * 3 + col;
+	}
+
+	/** Smallest base-3 index of the board over its 8 symmetric images */
+	static int canonical(int me, int opp) {
+		int key = Integer.MAX_VALUE;
+		for (int[] symmetry : SYMMETRY)
+			key = Math.min(key, BASE3[symmetry[me]] + 2 * BASE3[symmetry[opp]]);
+		return key;
+	}
+
+	/**
+	 * Negamax with alpha-beta. opp has just moved; the score is from the point
+	 * of view of me: 0 for a draw, and for a finished game 1 + the number of
+	 * empty cells, so quicker wins (and slower losses) are preferred.
+	 */
+	static int negamax(int me, int opp, int alpha, int beta) {
+		int occupied = me | opp;
+		if (WON[opp])
+			return -(10 - Integer.bitCount(occupied));
+		if (occupied == FULL)
+			return 0;
+
+		int key = canonical(me, opp);
+		int flag = ttFlag[key], value = ttValue[key];
+		if (flag == EXACT || flag == LOWER && value >= beta || flag == UPPER && value <= alpha)
+			return value;
+
+		int alphaOrig = alpha, best = -10;
+		for (int cell : MOVE_ORDER) {
+			int bit = 1 << cell;
+			if ((occupied & bit) != 0)
+				continue;
+			int score = -negamax(opp, me | bit, -beta, -alpha);
+			if (score > best) {
+				best = score;
+				if (score > alpha)
+					alpha = score;
+				if (alpha >= beta)
+					break;
+			}
+		}
+		ttValue[key] = (byte) best;
+		ttFlag[key] = best <= alphaOrig ? UPPER : best >= beta ? LOWER : EXACT;
+		return best;
+	}
+
+	private static int searchBestMove(int me, int opp) {
+		int best = -11, bestCell = -1;
+		for (int cell : MOVE_ORDER) {
+			int bit = 1 << cell;
+			if (((me | opp) & bit) != 0)
+				continue;
+			int score = -negamax(opp, me | bit, -10, 10);
+			if (score > best) {
+				best = score;
+				bestCell = cell;
+			}
+		}
+		return bestCell;
+	}
+
+	/** Fill bestMove for every board reachable from (me, opp) */
+	private static void solve(int me, int opp) {
+		int index = BASE3[me] + 2 * BASE3[opp];
+		if (bestMove[index] != 0 || WON[me] || WON[opp] || (me | opp) == FULL)
+			return;
+		bestMove[index] = (byte) (searchBestMove(me, opp) + 1);
+		for (int cell = 0; cell < 9; cell++) {
+			int bit = 1 << cell;
+			if (((me | opp) & bit) == 0)
+				solve(opp, me | bit);
+		}
+	}
+
+	/** Play the engine against itself; perfect play always ends in a draw */
+	public static void main(String[] args) {
+		long beginTime = System.nanoTime();
+		int x = 0, o = 0;
+		for (int turn = 0; !WON[x] && !WON[o] && (x | o) != FULL; turn++) {
+			if (turn % 2 == 0)
+				x |= 1 << bestMove(x, o);
+			else
+				o |= 1 << bestMove(o, x);
+		}
+		System.out.println(WON[x] ? "X won" : WON[o] ? "O won" : "Draw");
+		System.out.println("Elapsed Time is " + (System.nanoTime() - beginTime) / 1000 + " usec");
+		System.out.println("Value of the empty board: " + evaluate(0, 0));
+	}
+}
@@ -0,0 +1,51 @@
+package ai;
+
+import adapter.Board;
+import adapter.Seed;
+
+/**
+ * AIPlayer that plays from an OpeningBook: on 3x3 every move comes from the
+ * tablebase, on larger boards the book covers the opening and the fallback
+ * player searches once the game leaves it.
+ */
+public class AIPlayerBook extends AIPlayer {
+	private final OpeningBook book;
+	private final AIPlayer fallback;
+	private boolean fromBook; // whether the last move came from the book
+
+	public AIPlayerBook(Board board, OpeningBook book, AIPlayer fallback) {
+		super(board);
+		this.book = book;
+		this.fallback = fallback;
+	}
+
+	/** The default book file, with AIPlayerMNK at one second per move after it */
+	public AIPlayerBook(Board board) {
+		this(board, OpeningBook.get(), new AIPlayerMNK(board, 1000));
+	}
+
+	@Override
+	public void setSeed(Seed seed) {
+		super.setSeed(seed);
+		fallback.setSeed(seed);
+	}
+
+	/**
+	 * Look the position up, search if it is not in the book
+	 *
+	 * @return int[2] of {row, col}
+	 */
+	@Override
+	int[] move() {
+		int cell = book.bestMove(position());
+		fromBook = cell >= 0;
+		if (!fromBook)
+			return fallback.move();
+		return new int[] { cell / COLS, cell % COLS };
+	}
+
+	@Override
+	long nodes() {
+		return fromBook ? 0 : fallback.nodes();
+	}
+}
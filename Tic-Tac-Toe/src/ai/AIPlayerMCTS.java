@@ -0,0 +1,318 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import adapter.Board;
+import adapter.Position;
+
+/**
+ * AIPlayer using Monte Carlo Tree Search (UCT) for any board size and win
+ * length. All worker threads of a fork/join pool search one shared tree (tree
+ * parallelization). A thread going down a node adds a virtual loss to it
+ * until its playout result is back, which steers the other threads to other
+ * branches.
+ *
+ * The search stops after a number of playouts or a wall-clock time,
+ * whichever comes first. Playouts run on each worker's own compact int[] copy
+ * of the board and allocate nothing. The subtree of the move actually played
+ * is kept for the next move.
+ */
+public class AIPlayerMCTS extends AIPlayer {
+
+	static final double EXPLORATION = 1.0; // UCT constant, for scores in [0, 1]
+	static final int VIRTUAL_LOSS = 1;
+	private static final int EMPTY = 0, ME = 1, OPP = 2;
+
+	private final int winLength, size;
+	private final ForkJoinPool pool;
+	private long playoutBudget = Long.MAX_VALUE;
+	private long timeBudget = 1000; // milliseconds
+
+	private Node root; // tree kept from the previous move
+	private int[] rootBoard; // the position root stands for, ME to move
+	private long lastPlayouts, lastElapsedTime;
+
+	public AIPlayerMCTS(Board board, ForkJoinPool pool) {
+		super(board);
+		this.winLength = board.winLength;
+		this.size = ROWS * COLS;
+		this.pool = pool;
+	}
+
+	public AIPlayerMCTS(Board board) {
+		this(board, ForkJoinPool.commonPool());
+	}
+
+	/** Stop after this many playouts (default: no limit) */
+	public void setPlayoutBudget(long playouts) {
+		playoutBudget = playouts;
+	}
+
+	/** Stop after this many milliseconds (default 1000) */
+	public void setTimeBudget(long millis) {
+		timeBudget = millis;
+	}
+
+	/** Playouts per second of the last search */
+	public double playoutsPerSecond() {
+		return lastPlayouts * 1e9 / Math.max(lastElapsedTime, 1);
+	}
+
+	public long lastPlayouts() {
+		return lastPlayouts;
+	}
+
+	@Override
+	long nodes() {
+		return lastPlayouts;
+	}
+
+	/**
+	 * Search from the current board
+	 *
+	 * @return int[2] of {row, col}
+	 */
+	@Override
+	int[] move() {
+		int cell = search(snapshot());
+		return new int[] { cell / COLS, cell % COLS };
+	}
+
+	/** The board as an int[] of EMPTY, ME and OPP */
+	int[] snapshot() {
+		Position current = position();
+		int[] position = new int[size];
+		for (int row = 0; row < ROWS; ++row) {
+			for (int col = 0; col < COLS; ++col) {
+				if (current.get(row, col) == mySeed)
+					position[row * COLS + col] = ME;
+				else if (current.get(row, col) == oppSeed)
+					position[row * COLS + col] = OPP;
+			}
+		}
+		return position;
+	}
+
+	/** Best cell for ME in position, or -1 if there is no empty cell */
+	int search(int[] position) {
+		int empty = 0;
+		for (int cell = 0; cell < size; cell++)
+			if (position[cell] == EMPTY)
+				empty++;
+		if (empty == 0)
+			return -1;
+		root = reuse(position);
+		rootBoard = position;
+		AtomicLong playouts = new AtomicLong();
+		long beginTime = System.nanoTime();
+		long deadline = beginTime + timeBudget * 1000000L;
+		List<Callable<Void>> workers = new ArrayList<>();
+		for (int i = 0; i < pool.getParallelism(); i++) {
+			SplittableRandom random = new SplittableRandom(beginTime + i);
+			workers.add(() -> {
+				Worker worker = new Worker(random);
+				while (System.nanoTime() < deadline && playouts.getAndIncrement() < playoutBudget)
+					worker.iterate();
+				return null;
+			});
+		}
+		pool.invokeAll(workers);
+		lastElapsedTime = System.nanoTime() - beginTime;
+		lastPlayouts = Math.min(playouts.get(), playoutBudget);
+
+		Node best = null;
+		Node[] children = root.children;
+		if (children != null)
+			for (Node child : children)
+				if (best == null || child.visits > best.visits)
+					best = child;
+		if (best != null)
+			return best.move;
+		int cell = 0; // no playout finished: any empty cell
+		while (position[cell] != EMPTY)
+			cell++;
+		return cell;
+	}
+
+	/**
+	 * The node for position in the tree kept from the last search, if
+	 * position is that one plus our move and one reply; otherwise a new root.
+	 */
+	private Node reuse(int[] position) {
+		if (root == null || rootBoard == null || root.children == null)
+			return new Node(-1, OPP);
+		int mine = -1, theirs = -1;
+		for (int cell = 0; cell < size; cell++) {
+			if (position[cell] == rootBoard[cell])
+				continue;
+			if (rootBoard[cell] != EMPTY)
+				return new Node(-1, OPP); // not a continuation
+			if (position[cell] == ME && mine < 0)
+				mine = cell;
+			else if (position[cell] == OPP && theirs < 0)
+				theirs = cell;
+			else
+				return new Node(-1, OPP);
+		}
+		Node node = child(child(root, mine), theirs);
+		return node != null && node.children != null ? node : new Node(-1, OPP);
+	}
+
+	private static Node child(Node node, int move) {
+		if (node == null || node.children == null || move < 0)
+			return null;
+		for (Node child : node.children)
+			if (child.move == move)
+				return child;
+		return null;
+	}
+
+	/** Tree node; scores are in half points (win 2, draw 1) for the player who moved */
+	static final class Node {
+		static final AtomicIntegerFieldUpdater<Node> VISITS = AtomicIntegerFieldUpdater.newUpdater(Node.class,
+				"visits");
+		static final AtomicIntegerFieldUpdater<Node> SCORE = AtomicIntegerFieldUpdater.newUpdater(Node.class,
+				"score");
+
+		final int move; // cell played to reach this node
+		final int player; // who played it
+		volatile int visits, score;
+		volatile Node[] children; // null until expanded
+
+		Node(int move, int player) {
+			this.move = move;
+			this.player = player;
+		}
+
+		synchronized void expand(int[] board, int size) {
+			if (children != null)
+				return;
+			int n = 0;
+			for (int cell = 0; cell < size; cell++)
+				if (board[cell] == EMPTY)
+					n++;
+			Node[] nodes = new Node[n];
+			n = 0;
+			for (int cell = 0; cell < size; cell++)
+				if (board[cell] == EMPTY)
+					nodes[n++] = new Node(cell, 3 - player);
+			children = nodes;
+		}
+	}
+
+	/** One search thread with its own board copy */
+	private final class Worker {
+		private final SplittableRandom random;
+		private final int[] board = new int[size];
+		private final int[] empty = new int[size]; // the empty cells, in empty[0..emptyCount)
+		private final int[] emptyIndex = new int[size]; // where each cell is in empty
+		private final Node[] path = new Node[size + 1];
+		private int emptyCount;
+
+		Worker(SplittableRandom random) {
+			this.random = random;
+		}
+
+		/** Selection, expansion, playout and backpropagation */
+		void iterate() {
+			System.arraycopy(rootBoard, 0, board, 0, size);
+			emptyCount = 0;
+			for (int cell = 0; cell < size; cell++) {
+				if (board[cell] == EMPTY) {
+					emptyIndex[cell] = emptyCount;
+					empty[emptyCount++] = cell;
+				}
+			}
+			Node node = root;
+			int depth = 0;
+			path[0] = node;
+			Node.VISITS.addAndGet(node, VIRTUAL_LOSS);
+			int winner = -1; // -1 while the game goes on, EMPTY for a draw
+			while (winner < 0) {
+				if (node.children == null) {
+					if (node.visits <= VIRTUAL_LOSS && node != root)
+						break; // first visit: play out from here
+					node.expand(board, size);
+				}
+				node = select(node);
+				Node.VISITS.addAndGet(node, VIRTUAL_LOSS);
+				path[++depth] = node;
+				winner = play(node.move, node.player);
+			}
+			if (winner < 0)
+				winner = playout(3 - node.player);
+			for (int i = 0; i <= depth; i++) {
+				Node n = path[i];
+				Node.VISITS.addAndGet(n, 1 - VIRTUAL_LOSS);
+				Node.SCORE.addAndGet(n, winner == EMPTY ? 1 : winner == n.player ? 2 : 0);
+			}
+		}
+
+		private Node select(Node node) {
+			Node[] children = node.children;
+			double logVisits = Math.log(Math.max(node.visits, 1));
+			Node best = null;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			int offset = random.nextInt(children.length); // spread threads over unvisited children
+			for (int i = 0; i < children.length; i++) {
+				Node child = children[(i + offset) % children.length];
+				int visits = child.visits;
+				if (visits == 0)
+					return child;
+				double value = child.score / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+				if (value > bestValue) {
+					bestValue = value;
+					best = child;
+				}
+			}
+			return best;
+		}
+
+		/** Random moves until the game ends; returns the winner or EMPTY */
+		private int playout(int player) {
+			while (emptyCount > 0) {
+				int cell = empty[random.nextInt(emptyCount)];
+				int winner = play(cell, player);
+				if (winner >= 0)
+					return winner;
+				player = 3 - player;
+			}
+			return EMPTY;
+		}
+
+		/** Put player on cell; returns the winner, EMPTY for a draw, -1 otherwise */
+		private int play(int cell, int player) {
+			board[cell] = player;
+			int last = empty[--emptyCount]; // swap-remove cell from the empty list
+			empty[emptyIndex[cell]] = last;
+			emptyIndex[last] = emptyIndex[cell];
+			if (hasWon(cell, player))
+				return player;
+			return emptyCount == 0 ? EMPTY : -1;
+		}
+
+		private boolean hasWon(int cell, int player) {
+			int row = cell / COLS, col = cell % COLS;
+			return count(row, col, 0, 1, player) >= winLength || count(row, col, 1, 0, player) >= winLength
+					|| count(row, col, 1, 1, player) >= winLength || count(row, col, 1, -1, player) >= winLength;
+		}
+
+		// Length of the run of player through (row, col) in direction (dRow, dCol)
+		private int count(int row, int col, int dRow, int dCol, int player) {
+			int n = 1;
+			for (int r = row + dRow, c = col + dCol; r >= 0 && r < ROWS && c >= 0 && c < COLS
+					&& board[r * COLS + c] == player; r += dRow, c += dCol)
+				n++;
+			for (int r = row - dRow, c = col - dCol; r >= 0 && r < ROWS && c >= 0 && c < COLS
+					&& board[r * COLS + c] == player; r -= dRow, c -= dCol)
+				n++;
+			return n;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package ai;
+
+import adapter.Board;
+import adapter.Position;
+
+/**
+ * AIPlayer for any board size and win length, backed by MNKEngine. Each move
+ * is searched for at most timeBudget milliseconds so that the UI stays
+ * responsive; the engine (and its transposition table) is reused between
+ * moves.
+ */
+public class AIPlayerMNK extends AIPlayer {
+	private final MNKEngine engine;
+	private final long timeBudget;
+
+	public AIPlayerMNK(Board board, long timeBudget) {
+		super(board);
+		engine = new MNKEngine(board.rows, board.cols, board.winLength);
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * Copy the board into the engine (mySeed is the engine's FIRST player)
+	 * and search
+	 *
+	 * @return int[2] of {row, col}
+	 */
+	@Override
+	int[] move() {
+		Position position = position();
+		engine.clear();
+		for (int row = 0; row < ROWS; ++row) {
+			for (int col = 0; col < COLS; ++col) {
+				if (position.get(row, col) == mySeed)
+					engine.place(row * COLS + col, MNKEngine.FIRST);
+				else if (position.get(row, col) == oppSeed)
+					engine.place(row * COLS + col, MNKEngine.SECOND);
+			}
+		}
+		engine.setSideToMove(MNKEngine.FIRST);
+		int cell = engine.bestMove(timeBudget);
+		return new int[] { cell / COLS, cell % COLS };
+	}
+
+	@Override
+	long nodes() {
+		return engine.nodes();
+	}
+}
@@ -0,0 +1,38 @@
+package ai;
+
+import java.util.Random;
+
+import adapter.Board;
+import adapter.Position;
+import adapter.Seed;
+
+/** AIPlayer that picks a random empty cell, like tictactoe.AI in Hacker Rank */
+public class AIPlayerRandom extends AIPlayer {
+	private final Random random;
+
+	public AIPlayerRandom(Board board, long seed) {
+		super(board);
+		random = new Random(seed);
+	}
+
+	public AIPlayerRandom(Board board) {
+		super(board);
+		random = new Random();
+	}
+
+	/**
+	 * Pick uniformly among the empty cells
+	 *
+	 * @return int[2] of {row, col}
+	 */
+	@Override
+	int[] move() {
+		Position position = position();
+		int choice = random.nextInt(ROWS * COLS - position.filled());
+		for (int row = 0; row < ROWS; ++row)
+			for (int col = 0; col < COLS; ++col)
+				if (position.get(row, col) == Seed.EMPTY && choice-- == 0)
+					return new int[] { row, col };
+		throw new IllegalStateException("No empty cell");
+	}
+}
@@ -4,10 +4,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import adapter.Board;
+import adapter.Position;
 import adapter.Seed;
 
-/** AIPlayer using Minimax algorithm */
+/**
+ * AIPlayer using Minimax algorithm. It searches copies of the board's
+ * Position, so the board itself is never touched.
+ */
 public class AIPlayerTableLookup extends AIPlayer {
+	private long nodes; // minimax calls of the last move
+
 	public AIPlayerTableLookup(Board board) {
 		super(board);
 	}
@@ -20,12 +26,19 @@ public class AIPlayerTableLookup extends AIPlayer {
 	 */
 	@Override
 	int[] move() {
-		int[] result = minimax(2, mySeed); // depth, max turn
+		nodes = 0;
+		int[] result = minimax(position(), 2, mySeed); // depth, max turn
 		return new int[] { result[1], result[2] }; // row, col
 	}
 
-	private int[] minimax(int depth, Seed player) {
-		List<int[]> nextMoves = generateMove();
+	@Override
+	long nodes() {
+		return nodes;
+	}
+
+	private int[] minimax(Position position, int depth, Seed player) {
+		nodes++;
+		List<int[]> nextMoves = generateMove(position);
 		// mySeed is maximizing; while oppSeed is minimizing
 		int bestScore = (player == mySeed) ? Integer.MIN_VALUE : Integer.MAX_VALUE;
 		int currentScore;
@@ -34,28 +47,26 @@ public class AIPlayerTableLookup extends AIPlayer {
 
 		if (nextMoves.isEmpty() || depth == 0) {
 			// Gameover or depth reached, evaluate score
-			bestScore = evaluate();
+			bestScore = evaluate(position);
 		} else {
 			for (int[] move : nextMoves) {
 				// Try this move for the current "player"
-				cells[move[0]][move[1]].content = player;
+				Position next = position.play(move[0], move[1], player);
 				if (player == mySeed) { // mySeed (computer) is maximizing player
-					currentScore = minimax(depth - 1, oppSeed)[0];
+					currentScore = minimax(next, depth - 1, oppSeed)[0];
 					if (currentScore > bestScore) {
 						bestScore = currentScore;
 						bestRow = move[0];
 						bestCol = move[1];
 					}
 				} else { // oppSeed is minimizing player
-					currentScore = minimax(depth - 1, mySeed)[0];
+					currentScore = minimax(next, depth - 1, mySeed)[0];
 					if (currentScore < bestScore) {
 						bestScore = currentScore;
 						bestRow = move[0];
 						bestCol = move[1];
 					}
 				}
-				// Undo move
-				cells[move[0]][move[1]].content = Seed.EMPTY;
 			}
 		}
 		return new int[] { bestScore, bestRow, bestCol };
@@ -65,16 +76,16 @@ public class AIPlayerTableLookup extends AIPlayer {
 	 * Find all valid next moves.
 	 * Return List of moves in int[2] of {row, col} or empty list if gameover
 	 */
-	private List<int[]> generateMove() {
+	private List<int[]> generateMove(Position position) {
 		List<int[]> nextMoves = new ArrayList<>();
 		// If gameover, i.e., no next move
-		if (hasWon(mySeed) || hasWon(oppSeed)) {
+		if (hasWon(position, mySeed) || hasWon(position, oppSeed)) {
 			return nextMoves;
 		}
 		// Search for empty cells and add to the List
 		for (int row = 0; row < ROWS; ++row) {
 			for (int col = 0; col < COLS; ++col) {
-				if (cells[row][col].content == Seed.EMPTY) {
+				if (position.get(row, col) == Seed.EMPTY) {
 					nextMoves.add(new int[] { row, col });
 				}
 			}
@@ -90,17 +101,17 @@ public class AIPlayerTableLookup extends AIPlayer {
 	 *         0 otherwise
 	 */
 
-	private int evaluate() {
+	private int evaluate(Position position) {
 		int score = 0;
 		// Evaluate score for each of the 8 lines (3 rows, 3 columns, 2 diagonals)
-		score += evaluateLine(0, 0, 0, 1, 0, 2); // row 0
-		score += evaluateLine(1, 0, 1, 1, 1, 2); // row 1
-		score += evaluateLine(2, 0, 2, 1, 2, 2); // row 2
-		score += evaluateLine(0, 0, 1, 0, 2, 0); // col 0
-		score += evaluateLine(0, 1, 1, 1, 2, 1); // col 1
-		score += evaluateLine(0, 2, 1, 2, 2, 2); // col 2
-		score += evaluateLine(0, 0, 1, 1, 2, 2); // diagonal
-		score += evaluateLine(0, 2, 1, 1, 2, 0); // alternate diagonal
+		score += evaluateLine(position, 0, 0, 0, 1, 0, 2); // row 0
+		score += evaluateLine(position, 1, 0, 1, 1, 1, 2); // row 1
+		score += evaluateLine(position, 2, 0, 2, 1, 2, 2); // row 2
+		score += evaluateLine(position, 0, 0, 1, 0, 2, 0); // col 0
+		score += evaluateLine(position, 0, 1, 1, 1, 2, 1); // col 1
+		score += evaluateLine(position, 0, 2, 1, 2, 2, 2); // col 2
+		score += evaluateLine(position, 0, 0, 1, 1, 2, 2); // diagonal
+		score += evaluateLine(position, 0, 2, 1, 1, 2, 0); // alternate diagonal
 		return score;
 	}
 
@@ -111,18 +122,18 @@ public class AIPlayerTableLookup extends AIPlayer {
 	 *         -100, -10, -1 for 3-, 2-, 1-in-a-line for opponent.
 	 *         0 otherwise
 	 */
-	private int evaluateLine(int row1, int col1, int row2, int col2, int row3, int col3) {
+	private int evaluateLine(Position position, int row1, int col1, int row2, int col2, int row3, int col3) {
 		int score = 0;
 
 		// First cell
-		if (cells[row1][col1].content == mySeed) {
+		if (position.get(row1, col1) == mySeed) {
 			score = 1;
-		} else if (cells[row1][col1].content == oppSeed) {
+		} else if (position.get(row1, col1) == oppSeed) {
 			score = -1;
 		}
 
 		// Second cell
-		if (cells[row2][col2].content == mySeed) {
+		if (position.get(row2, col2) == mySeed) {
 			if (score == 1) { // cell1 is mySeed
 				score = 10;
 			} else if (score == -1) { // cell1 is oppSeed
@@ -130,7 +141,7 @@ public class AIPlayerTableLookup extends AIPlayer {
 			} else { // cell1 is empty
 				score = 1;
 			}
-		} else if (cells[row2][col2].content == oppSeed) {
+		} else if (position.get(row2, col2) == oppSeed) {
 			if (score == -1) { // cell1 is oppSeed
 				score = -10;
 			} else if (score == 1) { // cell1 is mySeed
@@ -141,7 +152,7 @@ public class AIPlayerTableLookup extends AIPlayer {
 		}
 
 		// Third cell
-		if (cells[row3][col3].content == mySeed) {
+		if (position.get(row3, col3) == mySeed) {
 			if (score > 0) { // cell1 and/or cell2 is mySeed
 				score *= 10;
 			} else if (score < 0) { // cell1 and/or cell2 is oppSeed
@@ -149,7 +160,7 @@ public class AIPlayerTableLookup extends AIPlayer {
 			} else { // cell1 and cell2 are empty
 				score = 1;
 			}
-		} else if (cells[row3][col3].content == oppSeed) {
+		} else if (position.get(row3, col3) == oppSeed) {
 			if (score < 0) { // cell1 and/or cell2 is oppSeed
 				score *= 10;
 			} else if (score > 1) { // cell1 and/or cell2 is mySeed
@@ -167,15 +178,8 @@ public class AIPlayerTableLookup extends AIPlayer {
 	};
 
 	/** Returns true if thePlayer wins */
-	private boolean hasWon(Seed thePlayer) {
-		int pattern = 0b000000000; // 9-bit pattern for the 9 cells
-		for (int row = 0; row < ROWS; ++row) {
-			for (int col = 0; col < COLS; ++col) {
-				if (cells[row][col].content == thePlayer) {
-					pattern |= (1 << (row * COLS + col));
-				}
-			}
-		}
+	private boolean hasWon(Position position, Seed thePlayer) {
+		int pattern = (int) position.mask(thePlayer); // 9-bit pattern for the 9 cells
 		for (int winningPattern : winningPatterns) {
 			if ((pattern & winningPattern) == winningPattern)
 				return true;
@@ -0,0 +1,256 @@
+package ai;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import adapter.Board;
+import adapter.Seed;
+
+/**
+ * Headless self-play arena: plays N games between two engines on several
+ * threads and collects win/draw/loss counts, nodes searched, nodes per second
+ * and move-latency percentiles. Results can be appended to a CSV file to
+ * track strength and speed across changes.
+ *
+ * Each thread has its own Board and its own pair of players, reused from game
+ * to game. The engines take turns at playing first (CROSS). A player that
+ * returns an illegal move loses the game.
+ */
+public class Arena {
+
+	static final String CSV_HEADER = "engine_a,engine_b,board,games,a_wins,draws,b_wins,forfeits,"
+			+ "a_nodes,a_nodes_per_sec,a_p50_us,a_p90_us,a_p99_us,a_max_us,"
+			+ "b_nodes,b_nodes_per_sec,b_p50_us,b_p90_us,b_p99_us,b_max_us";
+
+	/** A named way of creating an AIPlayer on a board */
+	public static final class Engine {
+		final String name;
+		final Function<Board, AIPlayer> factory;
+
+		public Engine(String name, Function<Board, AIPlayer> factory) {
+			this.name = name;
+			this.factory = factory;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/** Moves of one engine in a match */
+	public static final class Stats {
+		private long[] latencies = new long[64]; // nanoseconds per move
+		private int moves;
+		private long nodes, thinkTime;
+
+		void add(long latency, long searched) {
+			if (moves == latencies.length)
+				latencies = Arrays.copyOf(latencies, moves * 2);
+			latencies[moves++] = latency;
+			thinkTime += latency;
+			nodes += searched;
+		}
+
+		void addAll(Stats other) {
+			for (int i = 0; i < other.moves; i++)
+				add(other.latencies[i], 0);
+			nodes += other.nodes;
+		}
+
+		public int moves() {
+			return moves;
+		}
+
+		public long nodes() {
+			return nodes;
+		}
+
+		public double nodesPerSecond() {
+			return nodes * 1e9 / Math.max(thinkTime, 1);
+		}
+
+		/** Move latency at quantile q in (0, 1], in microseconds */
+		public double percentile(double q) {
+			if (moves == 0)
+				return 0;
+			long[] sorted = Arrays.copyOf(latencies, moves);
+			Arrays.sort(sorted);
+			int rank = (int) Math.ceil(q * moves) - 1;
+			return sorted[Math.max(rank, 0)] / 1e3;
+		}
+	}
+
+	/** Outcome of a match, counted from engine a's side */
+	public static final class MatchResult {
+		public final Engine a, b;
+		public final int rows, cols, winLength;
+		public final Stats statsA = new Stats(), statsB = new Stats();
+		public int games, wins, draws, losses, forfeits;
+
+		MatchResult(Engine a, Engine b, int rows, int cols, int winLength) {
+			this.a = a;
+			this.b = b;
+			this.rows = rows;
+			this.cols = cols;
+			this.winLength = winLength;
+		}
+
+		void addAll(MatchResult other) {
+			games += other.games;
+			wins += other.wins;
+			draws += other.draws;
+			losses += other.losses;
+			forfeits += other.forfeits;
+			statsA.addAll(other.statsA);
+			statsB.addAll(other.statsB);
+		}
+
+		String board() {
+			return rows + "x" + cols + "k" + winLength;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT,
+					"%-16s vs %-16s %-8s %4d games: %4d won, %4d drawn, %4d lost | "
+							+ "%,12.0f / %,12.0f nodes/s | p50 %,9.1f / %,9.1f us | p99 %,9.1f / %,9.1f us",
+					a, b, board(), games, wins, draws, losses, statsA.nodesPerSecond(), statsB.nodesPerSecond(),
+					statsA.percentile(0.5), statsB.percentile(0.5), statsA.percentile(0.99),
+					statsB.percentile(0.99));
+		}
+	}
+
+	/** Play games games of a against b on a rows x cols board, k in a row to win */
+	public static MatchResult play(Engine a, Engine b, int rows, int cols, int winLength, int games, int threads)
+			throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<MatchResult>> parts = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				parts.add(executor.submit(() -> {
+					Board board = new Board(rows, cols, winLength);
+					AIPlayer playerA = a.factory.apply(board), playerB = b.factory.apply(board);
+					MatchResult part = new MatchResult(a, b, rows, cols, winLength);
+					for (int game = first; game < games; game += threads)
+						playGame(board, playerA, playerB, game % 2 == 0, part);
+					return part;
+				}));
+			}
+			MatchResult result = new MatchResult(a, b, rows, cols, winLength);
+			for (Future<MatchResult> part : parts)
+				result.addAll(part.get());
+			return result;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Game failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Play one game and add its outcome to result */
+	static void playGame(Board board, AIPlayer a, AIPlayer b, boolean aFirst, MatchResult result) {
+		board.init();
+		a.setSeed(aFirst ? Seed.CROSS : Seed.NOUGHT);
+		b.setSeed(aFirst ? Seed.NOUGHT : Seed.CROSS);
+		result.games++;
+		boolean aToMove = aFirst;
+		while (true) {
+			AIPlayer player = aToMove ? a : b;
+			long beginTime = System.nanoTime();
+			int[] move = player.move();
+			long latency = System.nanoTime() - beginTime;
+			(aToMove ? result.statsA : result.statsB).add(latency, player.nodes());
+
+			if (move == null || move[0] < 0 || move[0] >= board.rows || move[1] < 0 || move[1] >= board.cols
+					|| board.position().get(move[0], move[1]) != Seed.EMPTY) {
+				result.forfeits++;
+				if (aToMove)
+					result.losses++;
+				else
+					result.wins++;
+				return;
+			}
+			board.play(move[0], move[1], player.mySeed);
+			if (board.hasWon(player.mySeed, move[0], move[1])) {
+				if (aToMove)
+					result.wins++;
+				else
+					result.losses++;
+				return;
+			}
+			if (board.isDraw()) {
+				result.draws++;
+				return;
+			}
+			aToMove = !aToMove;
+		}
+	}
+
+	/** Append results to file, writing the header first if the file is new */
+	public static void writeCsv(List<MatchResult> results, File file) throws IOException {
+		boolean header = !file.exists() || file.length() == 0;
+		try (PrintWriter out = new PrintWriter(new FileWriter(file, true))) {
+			if (header)
+				out.println(CSV_HEADER);
+			for (MatchResult r : results) {
+				out.printf(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%d,%s,%s%n", r.a, r.b, r.board(), r.games, r.wins,
+						r.draws, r.losses, r.forfeits, csv(r.statsA), csv(r.statsB));
+			}
+		}
+	}
+
+	private static String csv(Stats s) {
+		return String.format(Locale.ROOT, "%d,%.0f,%.1f,%.1f,%.1f,%.1f", s.nodes(), s.nodesPerSecond(),
+				s.percentile(0.5), s.percentile(0.9), s.percentile(0.99), s.percentile(1));
+	}
+
+	/**
+	 * Arguments: [games per match] [threads] [CSV file]; default 100 games on
+	 * every processor, appended to arena.csv
+	 */
+	public static void main(String[] args) throws Exception {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int threads = args.length > 1 ? Integer.parseInt(args[1])
+				: Runtime.getRuntime().availableProcessors();
+		File csv = new File(args.length > 2 ? args[2] : "arena.csv");
+
+		Engine random = new Engine("random", AIPlayerRandom::new);
+		Engine minimax = new Engine("table-lookup", AIPlayerTableLookup::new);
+		Engine bitboard = new Engine("bitboard", AIPlayerBitboard::new);
+		Engine mnk = new Engine("mnk-20ms", board -> new AIPlayerMNK(board, 20));
+		Engine book = new Engine("book", board -> new AIPlayerBook(board, OpeningBook.get(),
+				new AIPlayerMNK(board, 20)));
+		Engine mcts = new Engine("mcts-5k", board -> {
+			AIPlayerMCTS player = new AIPlayerMCTS(board);
+			player.setPlayoutBudget(5000);
+			return player;
+		});
+
+		List<MatchResult> results = new ArrayList<>();
+		Engine[][] classic = { { minimax, random }, { bitboard, random }, { bitboard, minimax },
+				{ mnk, bitboard }, { mcts, bitboard }, { mcts, minimax }, { book, bitboard }, { book, random } };
+		for (Engine[] match : classic) {
+			results.add(play(match[0], match[1], 3, 3, 3, games, threads));
+			System.out.println(results.get(results.size() - 1));
+		}
+		results.add(play(mcts, mnk, 7, 7, 4, Math.max(games / 10, 2), threads));
+		System.out.println(results.get(results.size() - 1));
+		results.add(play(book, mnk, 7, 7, 4, Math.max(games / 10, 2), threads));
+		System.out.println(results.get(results.size() - 1));
+		writeCsv(results, csv);
+		System.out.println("Results appended to " + csv.getAbsolutePath());
+	}
+}
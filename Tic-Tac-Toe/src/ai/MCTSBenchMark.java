@@ -0,0 +1,36 @@
+package ai;
+
+import java.util.concurrent.ForkJoinPool;
+
+import adapter.Board;
+
+/**
+ * Playouts per second of AIPlayerMCTS from the empty board, for a few board
+ * sizes and 1, 2, 4 ... threads up to the number of processors (default 2000
+ * ms per search, or the time given as argument).
+ */
+public class MCTSBenchMark {
+
+	static final int[][] GAMES = { { 3, 3, 3 }, { 7, 7, 4 }, { 15, 15, 5 }, { 19, 19, 5 } }; // rows, cols, k
+
+	public static void main(String[] args) {
+		long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+		int processors = Runtime.getRuntime().availableProcessors();
+		for (int[] game : GAMES) {
+			Board board = new Board(game[0], game[1], game[2]);
+			for (int threads = 1; threads <= processors; threads *= 2) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				AIPlayerMCTS player = new AIPlayerMCTS(board, pool);
+				player.setTimeBudget(millis / 4);
+				player.search(new int[game[0] * game[1]]); // warm up
+				player = new AIPlayerMCTS(board, pool);
+				player.setTimeBudget(millis);
+				int cell = player.search(new int[game[0] * game[1]]);
+				System.out.printf("%2dx%-2d k=%d, %2d threads: %,12.0f playouts/s, %,d playouts, move (%d, %d)%n",
+						game[0], game[1], game[2], threads, player.playoutsPerSecond(), player.lastPlayouts(),
+						cell / game[1], cell % game[1]);
+				pool.shutdown();
+			}
+		}
+	}
+}
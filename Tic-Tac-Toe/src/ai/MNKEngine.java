@@ -0,0 +1,385 @@
+package ai;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Game engine for m,n,k-games (rows x cols board, k in a row wins):
+ * Tic-Tac-Toe is 3,3,3 and Gomoku 15,15,5. It works on its own int[] board,
+ * independent of the Swing classes; cells are numbered row * cols + col.
+ *
+ * Evaluation is incremental. Every segment of k cells in a row, column or
+ * diagonal (a window) counts the stones of each player in it, and a window
+ * holding c stones of one player only is worth weight[c] to that player. A
+ * move updates just the windows through its cell, and a window reaching k
+ * stones means the game is won.
+ *
+ * bestMove() runs iterative deepening alpha-beta (negamax) within a time
+ * budget. Moves are ordered by the transposition table move, two killer
+ * moves per ply and the history heuristic, and positions (stones and side
+ * to move) are hashed with Zobrist keys. Only empty cells within two cells
+ * of a stone are searched.
+ */
+public class MNKEngine {
+
+	public static final int EMPTY = 0, FIRST = 1, SECOND = 2; // cell contents / players
+
+	static final long WIN = 1L << 40; // more than any evaluation
+	static final int TT_BITS = 20;
+	static final int NEAR_DISTANCE = 2; // candidate moves are this close to a stone
+
+	// Transposition table flags
+	private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+	public final int rows, cols, k, size;
+	private final int[] board;
+	private final int[][] windowsOfCell;
+	private final int[][] count; // count[player - 1][window]
+	private final long[] weight;
+	private long score; // sum of the window values, positive favours FIRST
+	private int wins; // windows filled by one player
+	private final int[][] neighbours; // cells within NEAR_DISTANCE of each cell
+	private final int[] near; // stones within NEAR_DISTANCE of each cell
+	private final int[] moves; // cells played, for undo
+	private int moveCount;
+	private int sideToMove = FIRST;
+
+	private final long[][] zobrist; // zobrist[player - 1][cell]
+	private final long secondToMove; // in the hash when SECOND is to move
+	private long hash;
+	private final long[] ttKey, ttScore;
+	private final int[] ttData; // depth | flag << 8 | (move + 1) << 10
+
+	private final int[][] history; // history[player - 1][cell]
+	private final int[][] killers; // two per ply
+	private final int[][] moveBuffer, orderBuffer; // candidate moves and their order keys, per ply
+
+	private long deadline, nodes;
+	private boolean aborted;
+	private int completedDepth, rootBestMove;
+
+	public MNKEngine(int rows, int cols, int k) {
+		if (rows < 1 || cols < 1 || k < 1 || k > Math.max(rows, cols))
+			throw new IllegalArgumentException("Invalid m,n,k-game " + rows + "," + cols + "," + k);
+		this.rows = rows;
+		this.cols = cols;
+		this.k = k;
+		size = rows * cols;
+		board = new int[size];
+		near = new int[size];
+		moves = new int[size];
+
+		int[][] windows = windows();
+		count = new int[2][windows.length];
+		int[] perCell = new int[size];
+		for (int[] window : windows)
+			for (int cell : window)
+				perCell[cell]++;
+		windowsOfCell = new int[size][];
+		for (int cell = 0; cell < size; cell++)
+			windowsOfCell[cell] = new int[perCell[cell]];
+		for (int w = 0; w < windows.length; w++)
+			for (int cell : windows[w])
+				windowsOfCell[cell][--perCell[cell]] = w;
+
+		// Each extra stone in an open window is worth 8 times more
+		weight = new long[k + 1];
+		for (int c = 1; c <= k; c++)
+			weight[c] = 1L << Math.min(3 * (c - 1), 30);
+
+		neighbours = new int[size][];
+		for (int cell = 0; cell < size; cell++) {
+			int row = cell / cols, col = cell % cols, n = 0;
+			int[] list = new int[(2 * NEAR_DISTANCE + 1) * (2 * NEAR_DISTANCE + 1)];
+			for (int r = Math.max(0, row - NEAR_DISTANCE); r <= Math.min(rows - 1, row + NEAR_DISTANCE); r++)
+				for (int c = Math.max(0, col - NEAR_DISTANCE); c <= Math.min(cols - 1, col + NEAR_DISTANCE); c++)
+					if (r != row || c != col)
+						list[n++] = r * cols + c;
+			neighbours[cell] = Arrays.copyOf(list, n);
+		}
+
+		SplittableRandom random = new SplittableRandom(rows * 1000003L + cols * 1009L + k);
+		zobrist = new long[2][size];
+		for (int cell = 0; cell < size; cell++) {
+			zobrist[0][cell] = random.nextLong();
+			zobrist[1][cell] = random.nextLong();
+		}
+		secondToMove = random.nextLong();
+		ttKey = new long[1 << TT_BITS];
+		ttScore = new long[1 << TT_BITS];
+		ttData = new int[1 << TT_BITS];
+
+		history = new int[2][size];
+		killers = new int[size + 1][2];
+		moveBuffer = new int[size + 1][size];
+		orderBuffer = new int[size + 1][size];
+	}
+
+	/** Cells of every k-cell segment in the 4 directions */
+	private int[][] windows() {
+		int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+		int n = 0;
+		int[][] windows = new int[4 * size][];
+		for (int[] d : directions) {
+			for (int row = 0; row < rows; row++) {
+				for (int col = 0; col < cols; col++) {
+					int endRow = row + d[0] * (k - 1), endCol = col + d[1] * (k - 1);
+					if (endRow >= rows || endCol < 0 || endCol >= cols)
+						continue;
+					int[] window = new int[k];
+					for (int i = 0; i < k; i++)
+						window[i] = (row + d[0] * i) * cols + col + d[1] * i;
+					windows[n++] = window;
+				}
+			}
+			if (k == 1)
+				break; // every direction gives the same single cells
+		}
+		return Arrays.copyOf(windows, n);
+	}
+
+	/** Play cell for the side to move */
+	public void play(int cell) {
+		if (board[cell] != EMPTY || isOver())
+			throw new IllegalStateException("Cell " + cell + " cannot be played");
+		place(cell, sideToMove);
+		setSideToMove(3 - sideToMove);
+	}
+
+	/** Take back the last move */
+	public void undo() {
+		int cell = moves[--moveCount];
+		int player = board[cell];
+		hash ^= zobrist[player - 1][cell];
+		for (int w : windowsOfCell[cell]) {
+			long before = windowValue(w);
+			if (count[player - 1][w]-- == k)
+				wins--;
+			score += windowValue(w) - before;
+		}
+		for (int neighbour : neighbours[cell])
+			near[neighbour]--;
+		board[cell] = EMPTY;
+		setSideToMove(player);
+	}
+
+	/** Put a stone of player on cell without changing the side to move */
+	public void place(int cell, int player) {
+		board[cell] = player;
+		hash ^= zobrist[player - 1][cell];
+		for (int w : windowsOfCell[cell]) {
+			long before = windowValue(w);
+			if (++count[player - 1][w] == k)
+				wins++;
+			score += windowValue(w) - before;
+		}
+		for (int neighbour : neighbours[cell])
+			near[neighbour]++;
+		moves[moveCount++] = cell;
+	}
+
+	/** Empty the board; the transposition table and history are kept */
+	public void clear() {
+		while (moveCount > 0)
+			undo();
+		setSideToMove(FIRST);
+	}
+
+	/** The side to move is part of the hash, so positions with the other side to move never share entries */
+	public void setSideToMove(int player) {
+		if (player != sideToMove)
+			hash ^= secondToMove;
+		sideToMove = player;
+	}
+
+	public int sideToMove() {
+		return sideToMove;
+	}
+
+	public int get(int cell) {
+		return board[cell];
+	}
+
+	/** The player who made a line of k, or EMPTY */
+	public int winner() {
+		return wins > 0 ? board[moves[moveCount - 1]] : EMPTY;
+	}
+
+	public boolean isOver() {
+		return wins > 0 || moveCount == size;
+	}
+
+	/** Depth of the last completed iteration of bestMove() */
+	public int completedDepth() {
+		return completedDepth;
+	}
+
+	/** Nodes visited by the last bestMove() */
+	public long nodes() {
+		return nodes;
+	}
+
+	private long windowValue(int w) {
+		int first = count[0][w], second = count[1][w];
+		if (second == 0)
+			return weight[first];
+		if (first == 0)
+			return -weight[second];
+		return 0; // blocked
+	}
+
+	/**
+	 * Best cell for the side to move, from the deepest iteration completed
+	 * within budgetMillis (depth 1 always completes). Returns -1 if the game
+	 * is over.
+	 */
+	public int bestMove(long budgetMillis) {
+		if (isOver())
+			return -1;
+		deadline = System.nanoTime() + budgetMillis * 1000000L;
+		aborted = false;
+		nodes = 0;
+		completedDepth = 0;
+		for (int[] h : history)
+			for (int cell = 0; cell < size; cell++)
+				h[cell] >>= 1; // age the history of the previous search
+		int best = -1;
+		for (int depth = 1; depth <= size - moveCount; depth++) {
+			rootBestMove = -1;
+			long value = negamax(depth, 0, -WIN - 1, WIN + 1);
+			if (aborted)
+				break;
+			best = rootBestMove;
+			completedDepth = depth;
+			if (Math.abs(value) > WIN - size - 1)
+				break; // forced win or loss found
+		}
+		return best;
+	}
+
+	private long negamax(int depth, int ply, long alpha, long beta) {
+		// Depth 1 always completes, so there is a move to return
+		if ((++nodes & 1023) == 0 && completedDepth > 0 && System.nanoTime() > deadline)
+			aborted = true;
+		if (aborted)
+			return 0;
+		if (wins > 0)
+			return -(WIN - ply); // the previous move won; later losses are better
+		if (moveCount == size)
+			return 0;
+		if (depth == 0)
+			return sideToMove == FIRST ? score : -score;
+
+		int index = (int) hash & ((1 << TT_BITS) - 1);
+		int ttMove = -1;
+		if (ttKey[index] == hash) {
+			int data = ttData[index];
+			ttMove = (data >>> 10) - 1;
+			if (ply > 0 && (data & 0xFF) >= depth) {
+				long value = fromTable(ttScore[index], ply);
+				int flag = (data >>> 8) & 3;
+				if (flag == EXACT || flag == LOWER && value >= beta || flag == UPPER && value <= alpha)
+					return value;
+			}
+		}
+
+		int n = generateMoves(ply, ttMove);
+		int[] candidates = moveBuffer[ply];
+		long alphaOrig = alpha, best = -WIN - 1;
+		int bestCell = candidates[0], player = sideToMove;
+		for (int i = 0; i < n; i++) {
+			int cell = candidates[i];
+			place(cell, player);
+			setSideToMove(3 - player);
+			long value = -negamax(depth - 1, ply + 1, -beta, -alpha);
+			undo();
+			if (aborted)
+				return 0;
+			if (value > best) {
+				best = value;
+				bestCell = cell;
+				if (ply == 0)
+					rootBestMove = cell;
+			}
+			if (value > alpha)
+				alpha = value;
+			if (alpha >= beta) {
+				if (cell != killers[ply][0]) {
+					killers[ply][1] = killers[ply][0];
+					killers[ply][0] = cell;
+				}
+				history[player - 1][cell] += depth * depth;
+				break;
+			}
+		}
+
+		ttKey[index] = hash;
+		ttScore[index] = toTable(best, ply);
+		int flag = best <= alphaOrig ? UPPER : best >= beta ? LOWER : EXACT;
+		ttData[index] = Math.min(depth, 0xFF) | flag << 8 | (bestCell + 1) << 10;
+		return best;
+	}
+
+	// Win scores are stored relative to the node so they stay valid at any ply
+	private static long toTable(long value, int ply) {
+		return value > WIN / 2 ? value + ply : value < -WIN / 2 ? value - ply : value;
+	}
+
+	private static long fromTable(long value, int ply) {
+		return value > WIN / 2 ? value - ply : value < -WIN / 2 ? value + ply : value;
+	}
+
+	/**
+	 * Fill moveBuffer[ply] with the empty cells near a stone (the centre on an
+	 * empty board), best first: table move, killers, then by history.
+	 */
+	private int generateMoves(int ply, int ttMove) {
+		int[] candidates = moveBuffer[ply], order = orderBuffer[ply];
+		int[] playerHistory = history[sideToMove - 1];
+		int n = 0;
+		for (int cell = 0; cell < size; cell++) {
+			if (board[cell] != EMPTY || (near[cell] == 0 && moveCount > 0))
+				continue;
+			if (moveCount == 0 && cell != (rows / 2) * cols + cols / 2)
+				continue;
+			int key = cell == ttMove ? Integer.MAX_VALUE
+					: cell == killers[ply][0] ? Integer.MAX_VALUE - 1
+							: cell == killers[ply][1] ? Integer.MAX_VALUE - 2 : playerHistory[cell];
+			// insertion sort, largest key first
+			int i = n++;
+			while (i > 0 && order[i - 1] < key) {
+				candidates[i] = candidates[i - 1];
+				order[i] = order[i - 1];
+				i--;
+			}
+			candidates[i] = cell;
+			order[i] = key;
+		}
+		return n;
+	}
+
+	/** Two engines play 15x15 five-in-a-row with the given budget per move */
+	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 15;
+		int cols = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+		int k = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		long budget = args.length > 3 ? Long.parseLong(args[3]) : 500;
+		MNKEngine engine = new MNKEngine(rows, cols, k);
+		while (!engine.isOver()) {
+			long beginTime = System.nanoTime();
+			int cell = engine.bestMove(budget);
+			long elapsedTime = (System.nanoTime() - beginTime) / 1000000;
+			System.out.printf("%s plays (%d, %d): depth %d, %d nodes, %d ms%n",
+					engine.sideToMove() == FIRST ? "X" : "O", cell / cols, cell % cols, engine.completedDepth(),
+					engine.nodes(), elapsedTime);
+			engine.play(cell);
+		}
+		for (int row = 0; row < rows; row++) {
+			StringBuilder sb = new StringBuilder();
+			for (int col = 0; col < cols; col++)
+				sb.append(".XO".charAt(engine.get(row * cols + col)));
+			System.out.println(sb);
+		}
+		System.out.println(engine.winner() == FIRST ? "X won" : engine.winner() == SECOND ? "O won" : "Draw");
+	}
+}
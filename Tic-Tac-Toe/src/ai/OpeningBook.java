@@ -0,0 +1,297 @@
+package ai;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import adapter.Position;
+import adapter.Seed;
+
+/**
+ * Solved positions and opening moves kept in one binary file that is memory
+ * mapped, so opening it costs a fraction of a millisecond and only the pages
+ * that are looked up are ever read.
+ *
+ * The file holds the 3x3 tablebase, one byte for every base-3 board index:
+ * the best move + 1 in the low four bits and the outcome for the side to move
+ * (WIN, DRAW, LOSS; 0 for boards that cannot occur) above them. All 5478
+ * legal positions are in it. Then come opening books for larger boards, each
+ * an open-addressing hash table from Position.key() to the move to play.
+ * Every lookup is O(1).
+ *
+ * <pre>
+ * int MAGIC, int VERSION, int 19683, byte[19683] tablebase,
+ * int books, { int rows, int cols, int winLength, int capacity,
+ *              long[capacity] keys (0 = empty slot), short[capacity] moves }
+ * </pre>
+ */
+public final class OpeningBook {
+
+	static final int MAGIC = 0x54545442; // "TTTB"
+	static final int VERSION = 1;
+	static final int TABLEBASE_SIZE = 19683; // 3^9
+	public static final int WIN = 1, DRAW = 2, LOSS = 3; // outcome for the side to move
+
+	private final MappedByteBuffer buffer;
+	private final List<int[]> books = new ArrayList<>(); // {rows, cols, winLength, capacity, keys offset}
+
+	private OpeningBook(MappedByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != TABLEBASE_SIZE)
+			throw new IOException("Not an opening book file");
+		int offset = 12 + TABLEBASE_SIZE;
+		int count = buffer.getInt(offset);
+		offset += 4;
+		for (int i = 0; i < count; i++) {
+			int capacity = buffer.getInt(offset + 12);
+			books.add(new int[] { buffer.getInt(offset), buffer.getInt(offset + 4), buffer.getInt(offset + 8),
+					capacity, offset + 16 });
+			offset += 16 + capacity * 10;
+		}
+	}
+
+	/** Map file read-only; only the headers are read now */
+	public static OpeningBook open(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/** Lazily loaded holder of the default book */
+	private static final class Default {
+		static final OpeningBook INSTANCE = load();
+
+		private static OpeningBook load() {
+			File file = new File(System.getProperty("tictactoe.book", "tictactoe.book"));
+			try {
+				if (!file.exists())
+					write(file, new int[0][], 0, 0);
+				return open(file);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * The book in the file named by the system property tictactoe.book
+	 * (default ./tictactoe.book), opened on first use. A missing file is
+	 * created with the tablebase only.
+	 */
+	public static OpeningBook get() {
+		return Default.INSTANCE;
+	}
+
+	/** Best cell for the side to move, or -1 if position is not in the file */
+	public int bestMove(Position position) {
+		if (position.rows == 3 && position.cols == 3 && position.winLength == 3) {
+			int entry = buffer.get(12 + index(position));
+			return (entry & 0xF) - 1;
+		}
+		for (int[] book : books) {
+			if (book[0] != position.rows || book[1] != position.cols || book[2] != position.winLength)
+				continue;
+			int capacity = book[3], keys = book[4];
+			long key = position.key();
+			for (int slot = (int) (key ^ key >>> 32) & (capacity - 1);; slot = (slot + 1) & (capacity - 1)) {
+				long k = buffer.getLong(keys + slot * 8);
+				if (k == 0)
+					return -1;
+				if (k == key)
+					return buffer.getShort(keys + capacity * 8 + slot * 2);
+			}
+		}
+		return -1;
+	}
+
+	/** WIN, DRAW or LOSS for the side to move of a 3x3 position; 0 if illegal */
+	public int outcome(Position position) {
+		if (position.rows != 3 || position.cols != 3 || position.winLength != 3)
+			return 0;
+		return (buffer.get(12 + index(position)) >> 4) & 3;
+	}
+
+	/** Number of positions in the 3x3 tablebase */
+	public int tablebaseSize() {
+		int n = 0;
+		for (int i = 0; i < TABLEBASE_SIZE; i++)
+			if (buffer.get(12 + i) != 0)
+				n++;
+		return n;
+	}
+
+	/** Number of positions in the book for that board, 0 if there is none */
+	public int bookSize(int rows, int cols, int winLength) {
+		int n = 0;
+		for (int[] book : books)
+			if (book[0] == rows && book[1] == cols && book[2] == winLength)
+				for (int slot = 0; slot < book[3]; slot++)
+					if (buffer.getLong(book[4] + slot * 8) != 0)
+						n++;
+		return n;
+	}
+
+	/** Base-3 index of a 3x3 board: the sum of Seed ordinal * 3^cell */
+	static int index(Position position) {
+		int index = 0;
+		for (int cell = 8; cell >= 0; cell--)
+			index = index * 3 + position.get(cell / 3, cell % 3).ordinal();
+		return index;
+	}
+
+	/**
+	 * Write the 3x3 tablebase and an opening book for each {rows, cols,
+	 * winLength} of boards. A book holds MNKEngine's move, searched for
+	 * millis milliseconds, in every position with fewer than plies stones in
+	 * which the book side has played its book moves and the other side has
+	 * played next to a stone (or near the centre on an empty board).
+	 */
+	public static void write(File file, int[][] boards, int plies, long millis) throws IOException {
+		byte[] tablebase = new byte[TABLEBASE_SIZE];
+		solve(new Position(3, 3, 3), tablebase);
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(TABLEBASE_SIZE);
+			out.write(tablebase);
+			out.writeInt(boards.length);
+			for (int[] board : boards) {
+				Map<Long, Integer> moves = new HashMap<>();
+				Position empty = new Position(board[0], board[1], board[2]);
+				// One engine per tree, so neither tree's moves depend on what the other left in the table
+				expand(empty, new MNKEngine(board[0], board[1], board[2]), plies, millis, moves); // book side first
+				MNKEngine second = new MNKEngine(board[0], board[1], board[2]);
+				for (int cell : replies(empty))
+					expand(empty.play(cell / empty.cols, cell % empty.cols, Seed.CROSS), second, plies, millis,
+							moves); // book side plays second
+				int capacity = Integer.highestOneBit(Math.max(moves.size(), 1) * 2) * 2; // load <= 1/2
+				long[] keys = new long[capacity];
+				short[] values = new short[capacity];
+				for (Map.Entry<Long, Integer> entry : moves.entrySet()) {
+					long key = entry.getKey();
+					int slot = (int) (key ^ key >>> 32) & (capacity - 1);
+					while (keys[slot] != 0)
+						slot = (slot + 1) & (capacity - 1);
+					keys[slot] = key;
+					values[slot] = (short) (int) entry.getValue();
+				}
+				out.writeInt(board[0]);
+				out.writeInt(board[1]);
+				out.writeInt(board[2]);
+				out.writeInt(capacity);
+				for (long key : keys)
+					out.writeLong(key);
+				for (short value : values)
+					out.writeShort(value);
+			}
+		}
+	}
+
+	/** Fill tablebase for every 3x3 position reachable from position */
+	private static void solve(Position position, byte[] tablebase) {
+		int index = index(position);
+		if (tablebase[index] != 0)
+			return;
+		Seed side = position.sideToMove();
+		Seed other = side == Seed.CROSS ? Seed.NOUGHT : Seed.CROSS;
+		int me = (int) position.mask(side), opp = (int) position.mask(other);
+		if (AIPlayerBitboard.WON[opp]) {
+			tablebase[index] = LOSS << 4;
+			return;
+		}
+		if (position.isFull()) {
+			tablebase[index] = DRAW << 4;
+			return;
+		}
+		int value = AIPlayerBitboard.evaluate(me, opp);
+		int move = AIPlayerBitboard.bestMove(me, opp);
+		tablebase[index] = (byte) ((value > 0 ? WIN : value == 0 ? DRAW : LOSS) << 4 | (move + 1));
+		for (int cell = 0; cell < 9; cell++)
+			if (position.get(cell / 3, cell % 3) == Seed.EMPTY)
+				solve(position.play(cell / 3, cell % 3, side), tablebase);
+	}
+
+	/** Store the engine's move in position, then follow every reply */
+	private static void expand(Position position, MNKEngine engine, int plies, long millis, Map<Long, Integer> moves) {
+		if (position.filled() >= plies || moves.containsKey(position.key()) || position.isFull())
+			return;
+		Seed side = position.sideToMove();
+		engine.clear();
+		for (int cell = 0; cell < position.rows * position.cols; cell++) {
+			Seed seed = position.get(cell / position.cols, cell % position.cols);
+			if (seed != Seed.EMPTY)
+				engine.place(cell, seed == side ? MNKEngine.FIRST : MNKEngine.SECOND);
+		}
+		engine.setSideToMove(MNKEngine.FIRST);
+		int move = engine.bestMove(millis);
+		moves.put(position.key(), move);
+		int row = move / position.cols, col = move % position.cols;
+		Position next = position.play(row, col, side);
+		if (next.hasWon(side, row, col))
+			return;
+		Seed other = side == Seed.CROSS ? Seed.NOUGHT : Seed.CROSS;
+		for (int cell : replies(next)) {
+			row = cell / next.cols;
+			col = cell % next.cols;
+			Position reply = next.play(row, col, other);
+			if (!reply.hasWon(other, row, col))
+				expand(reply, engine, plies, millis, moves);
+		}
+	}
+
+	/** Empty cells next to a stone, or the centre 3x3 of an empty board */
+	private static List<Integer> replies(Position position) {
+		List<Integer> cells = new ArrayList<>();
+		int rows = position.rows, cols = position.cols;
+		for (int row = 0; row < rows; ++row) {
+			for (int col = 0; col < cols; ++col) {
+				if (position.get(row, col) != Seed.EMPTY)
+					continue;
+				boolean near = position.filled() == 0 && Math.abs(row - rows / 2) <= 1
+						&& Math.abs(col - cols / 2) <= 1;
+				for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++)
+					for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++)
+						near |= position.get(r, c) != Seed.EMPTY;
+				if (near)
+					cells.add(row * cols + col);
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * Build ./tictactoe.book (or the file given as argument) with books for
+	 * 7x7 k=4 and 15x15 k=5, then time opening it and looking a move up
+	 */
+	public static void main(String[] args) throws IOException {
+		File file = new File(args.length > 0 ? args[0] : "tictactoe.book");
+		int plies = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		long millis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+		long beginTime = System.nanoTime();
+		write(file, new int[][] { { 7, 7, 4 }, { 15, 15, 5 } }, plies, millis);
+		System.out.printf("Wrote %s (%,d bytes) in %d ms%n", file, file.length(),
+				(System.nanoTime() - beginTime) / 1000000);
+
+		beginTime = System.nanoTime();
+		OpeningBook book = open(file);
+		long openTime = System.nanoTime() - beginTime;
+		beginTime = System.nanoTime();
+		int move = book.bestMove(new Position(15, 15, 5));
+		long lookupTime = System.nanoTime() - beginTime;
+		System.out.printf("Opened in %d usec, first 15x15 lookup (move %d) in %d usec%n", openTime / 1000, move,
+				lookupTime / 1000);
+		System.out.println("3x3 tablebase: " + book.tablebaseSize() + " positions, 7x7 k=4 book: "
+				+ book.bookSize(7, 7, 4) + ", 15x15 k=5 book: " + book.bookSize(15, 15, 5));
+	}
+}
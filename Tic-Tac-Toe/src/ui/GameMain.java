@@ -5,6 +5,7 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
@@ -46,29 +47,39 @@ public class GameMain extends JPanel {
 	public static final int CELL_PADDING = CELL_SIZE / 6;
 	public static final int SYMBOL_SIZE = CELL_SIZE - CELL_PADDING * 2;
 	public static final int SYMBOL_STROKE_WIDTH = 8; // pen's stroke width
+	// Larger boards are scaled down to fit in this many pixels
+	public static final int MAX_CANVAS_SIZE = 750;
 
 	private Board board; // the game board
 	private GameState currentState; // the current state of the game
 	private Seed currentPlayer; // the current player
 	private JLabel statusBar; // for displaying status message
+	private double scale; // drawing scale, 1 for boards that fit
 
 	Clip soundClipMove;
 	Clip soundClipGameOver;
 
 	public GameMain() {
+		this(ROWS, COLS, 3);
+	}
+
+	/** m,n,k-game on a rows-by-cols board, e.g. 15, 15, 5 for Gomoku */
+	public GameMain(int rows, int cols, int winLength) {
+		board = new Board(rows, cols, winLength); // allocate the game-board
+		scale = Math.min(1.0, (double) MAX_CANVAS_SIZE / (CELL_SIZE * Math.max(rows, cols)));
 		this.addMouseListener(new MouseAdapter() {
 			@Override
 			public void mouseClicked(MouseEvent e) {
-				int mouseX = e.getX();
-				int mouseY = e.getY();
+				int mouseX = (int) (e.getX() / scale);
+				int mouseY = (int) (e.getY() / scale);
 				// Get the row and column clicked
 				int rowSelected = mouseY / CELL_SIZE;
 				int colSelected = mouseX / CELL_SIZE;
 
 				if (currentState == GameState.PLAYING) {
-					if (rowSelected >= 0 && rowSelected < ROWS && colSelected >= 0 && colSelected < COLS
-							&& board.cells[rowSelected][colSelected].content == Seed.EMPTY) {
-						board.cells[rowSelected][colSelected].content = currentPlayer; //move
+					if (rowSelected >= 0 && rowSelected < board.rows && colSelected >= 0 && colSelected < board.cols
+							&& board.position().get(rowSelected, colSelected) == Seed.EMPTY) {
+						board.play(rowSelected, colSelected, currentPlayer); //move
 						updateGame(currentPlayer, rowSelected, colSelected);
 						currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
 						if (soundClipMove.isRunning()) {
@@ -117,20 +128,15 @@ public class GameMain extends JPanel {
 
 		setLayout(new BorderLayout());
 		add(statusBar, BorderLayout.PAGE_END); // same as SOUTH
-		setPreferredSize(new Dimension(CANVAS_WIDTH, CANVAS_HEIGHT + 30));
+		setPreferredSize(new Dimension((int) (CELL_SIZE * cols * scale), (int) (CELL_SIZE * rows * scale) + 30));
 		// account for statusBar in height
 
-		board = new Board(); // allocate the game-board
 		initGame(); // Initialize the game variables
 	}
 
 	/** Initialize the game-board contents and the current-state */
 	public void initGame() {
-		for (int row = 0; row < ROWS; ++row) {
-			for (int col = 0; col < COLS; ++col) {
-				board.cells[row][col].content = Seed.EMPTY; // all cells empty
-			}
-		}
+		board.init(); // all cells empty
 		currentState = GameState.PLAYING; // ready to play
 		currentPlayer = Seed.CROSS; // cross plays first
 	}
@@ -148,7 +154,10 @@ public class GameMain extends JPanel {
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g); // fill background
 		setBackground(Color.WHITE);
-		board.paint(g);
+		Graphics2D g2d = (Graphics2D) g.create();
+		g2d.scale(scale, scale);
+		board.paint(g2d);
+		g2d.dispose();
 		// Print status-bar message
 		if (currentState == GameState.PLAYING) {
 			statusBar.setForeground(Color.BLACK);
@@ -169,14 +178,17 @@ public class GameMain extends JPanel {
 		}
 	}
 
-	/** The entry "main" method */
+	/** The entry "main" method; optional arguments: rows cols winLength */
 	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : ROWS;
+		int cols = args.length > 1 ? Integer.parseInt(args[1]) : COLS;
+		int winLength = args.length > 2 ? Integer.parseInt(args[2]) : 3;
 		// Run GUI construction codes in Event-Dispatching thread for thread safety
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				JFrame frame = new JFrame(TITLE);
 				// Set the content-pane of the JFrame to an instance of main JPanel
-				frame.setContentPane(new GameMain());
+				frame.setContentPane(new GameMain(rows, cols, winLength));
 				frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 				frame.pack();
 				frame.setLocationRelativeTo(null); // center the application window